@@ -110,7 +110,7 @@ public class Controller implements IController {
   /**
    * The functional class for mouse press and drag.
    * It contains only one method that record a dragged point from user doodle,
-   * and repaint the view.
+   * and repaint the view with a preview of the symbol being drawn.
    */
   public class MousePressAndDragFunction implements IMouseFunction {
 
@@ -126,6 +126,7 @@ public class Controller implements IController {
       int y = e.getY();
       IPoint p = new Point(x, y);
       Controller.this.addPoint(p);
+      view.showPreview(model.getPreview());
       view.repaint(Controller.this.getPoints(), Controller.this.getAllSymbols());
     }
   }
@@ -148,6 +149,7 @@ public class Controller implements IController {
     public void run(MouseEvent e) {
       if (e.getButton() == MouseEvent.BUTTON1) {
         Controller.this.recognize();
+        view.showPreview(null);
         view.repaint(Controller.this.getPoints(), Controller.this.getAllSymbols());
       }
     }
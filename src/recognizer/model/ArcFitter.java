@@ -0,0 +1,94 @@
+package recognizer.model;
+
+import java.util.List;
+import recognizer.symbol.Arc;
+import recognizer.symbol.BasicSymbol;
+import recognizer.symbol.IPoint;
+
+/**
+ * Fits an arc, given points. The circle of the arc is solved from the sums exactly
+ * like the circle fitter. The pass over the points that evaluates the goodness also
+ * follows the angle of the points around the center, to find where the arc starts and
+ * how far it sweeps, so an arc costs no more passes than a circle.
+ *
+ * <p>A stroke that goes most of the way around is a broken circle, not an arc, so the
+ * sweep of an arc must stay below MAX_SWEEP, two thirds of a turn. As the last step
+ * back to the start of a closed stroke is not drawn, the sweep is counted with one
+ * more average step, sweep * n / (n - 1).
+ *
+ * <p>Edge cases: if the circle cannot be solved, or the stroke is not an arc, the
+ * goodness = 0 and there is no fitted arc.
+ */
+public class ArcFitter extends CircleFitter {
+
+  private static final double MAX_SWEEP = Math.toRadians(240);
+
+  private double startAngle;
+  private double sweep;
+  private boolean isArc;
+
+  public ArcFitter() {
+    super();
+  }
+
+  public ArcFitter(List<IPoint> points) {
+    super(points);
+  }
+
+  public ArcFitter(List<IPoint> points, Moments moments) {
+    super(points, moments);
+  }
+
+  public ArcFitter(double[] xs, double[] ys, int n) {
+    super(xs, ys, n);
+  }
+
+  public ArcFitter(double[] xs, double[] ys, int n, Moments moments) {
+    super(xs, ys, n, moments);
+  }
+
+  /**
+   * This method sets the goodness of fit of the solved arc, and its start and sweep,
+   * in one pass.
+   */
+  @Override
+  protected void evaluate() {
+    isArc = false;
+    goodness = 0;
+    if (!valid || n < 2) {
+      return;
+    }
+
+    double m = 0;
+    startAngle = Math.atan2(ys[0] - cy, xs[0] - cx);
+    double previous = startAngle;
+    sweep = 0;
+    for (int i = 0; i < n; i++) {
+      double dx = xs[i] - cx;
+      double dy = ys[i] - cy;
+      m += Math.abs(dx * dx + dy * dy - r * r);
+
+      //add the turn from the previous point, taken the short way round.
+      double theta = Math.atan2(dy, dx);
+      double turn = theta - previous;
+      if (turn > Math.PI) {
+        turn -= 2 * Math.PI;
+      } else if (turn < -Math.PI) {
+        turn += 2 * Math.PI;
+      }
+      sweep += turn;
+      previous = theta;
+    }
+
+    isArc = sweep != 0 && Math.abs(sweep) * n / (n - 1) < MAX_SWEEP;
+    if (isArc) {
+      double q = Math.sqrt(m) / n;
+      goodness = 1 - Math.min(1, q / r);
+    }
+  }
+
+  @Override
+  protected BasicSymbol createSymbol() {
+    return isArc ? new Arc(cx, cy, r, startAngle, sweep) : null;
+  }
+}
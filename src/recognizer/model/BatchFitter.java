@@ -0,0 +1,139 @@
+package recognizer.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+import recognizer.symbol.IPoint;
+
+/**
+ * Fits many recorded strokes at once, for example to run the recognition again over
+ * an archive of strokes. Each stroke gets the fitter selection Model makes on mouse
+ * release, with no simplifier: the fitters are tried in order and the first confident
+ * one is kept. Unlike Model, the stroke is not given to the corner segmenter, so a
+ * polyline gives the one symbol that fits it best, not its sides. The results are
+ * returned in the order of the strokes.
+ *
+ * <p>The strokes are split in halves on a ForkJoinPool until a part has at most
+ * SEQUENTIAL_STROKES strokes, so a large batch is spread over all the cores. Fitters
+ * keep the result of their last fit and cannot be shared between threads, so each
+ * part creates its own fitters from the supplier, and its own stroke buffer, and
+ * reuses them for all its strokes. Each result is written to the position of its
+ * stroke, so the order of the results does not depend on the scheduling.
+ */
+public class BatchFitter {
+
+  /**
+   * The number of strokes below which a part is fitted on one thread.
+   */
+  static final int SEQUENTIAL_STROKES = 64;
+
+  private final Supplier<FitterRegistry> fitters;
+  private final ForkJoinPool pool;
+
+  /**
+   * Constructs a batch fitter with the same fitters as Model, on the common pool.
+   */
+  public BatchFitter() {
+    this(Model::defaultFitters);
+  }
+
+  /**
+   * Constructs a batch fitter on the common pool.
+   *
+   * @param fitters creates a new registry of new fitters on every call
+   * @throws IllegalArgumentException when the supplier is null
+   */
+  public BatchFitter(Supplier<FitterRegistry> fitters) {
+    this(fitters, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Constructs a batch fitter on the given pool.
+   *
+   * @param fitters creates a new registry of new fitters on every call
+   * @param pool the pool to fit the strokes on
+   * @throws IllegalArgumentException when the supplier or the pool is null
+   */
+  public BatchFitter(Supplier<FitterRegistry> fitters, ForkJoinPool pool) {
+    if (fitters == null || pool == null) {
+      throw new IllegalArgumentException("Null fitters or pool.");
+    }
+    this.fitters = fitters;
+    this.pool = pool;
+  }
+
+  /**
+   * Fit every stroke of the batch.
+   *
+   * @param strokes the strokes, each a list of points
+   * @return the result of each stroke, in the same order as the strokes
+   * @throws IllegalArgumentException when the strokes or one of them is null
+   */
+  public List<FitResult> fitAll(List<List<IPoint>> strokes) {
+    if (strokes == null) {
+      throw new IllegalArgumentException("Null strokes.");
+    }
+    List<List<IPoint>> copy = new ArrayList<>(strokes);
+    for (List<IPoint> stroke : copy) {
+      if (stroke == null) {
+        throw new IllegalArgumentException("Null stroke.");
+      }
+    }
+    FitResult[] results = new FitResult[copy.size()];
+    pool.invoke(new FitTask(fitters, copy, results, 0, copy.size()));
+    return Arrays.asList(results);
+  }
+
+  /**
+   * Fits the strokes from start, inclusive, to end, exclusive, with fitters from the
+   * supplier. It is never serialized.
+   */
+  private static class FitTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final Supplier<FitterRegistry> fitters;
+    private final List<List<IPoint>> strokes;
+    private final FitResult[] results;
+    private final int start;
+    private final int end;
+
+    FitTask(Supplier<FitterRegistry> fitters, List<List<IPoint>> strokes,
+            FitResult[] results, int start, int end) {
+      this.fitters = fitters;
+      this.strokes = strokes;
+      this.results = results;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    protected void compute() {
+      if (end - start <= SEQUENTIAL_STROKES) {
+        fitSequentially();
+        return;
+      }
+      int middle = (start + end) >>> 1;
+      invokeAll(new FitTask(fitters, strokes, results, start, middle),
+          new FitTask(fitters, strokes, results, middle, end));
+    }
+
+    private void fitSequentially() {
+      FitterRegistry registry = fitters.get();
+      StrokeBuffer stroke = new StrokeBuffer();
+      for (int i = start; i < end; i++) {
+        stroke.clear();
+        for (IPoint p : strokes.get(i)) {
+          if (p != null) {
+            stroke.add(p.getX(), p.getY());
+          }
+        }
+        Fitter selected = registry.select(stroke);
+        results[i] = selected == null ? new FitResult(null, 0)
+            : new FitResult(selected.getFittedBasicSymbol(), selected.getGoodness());
+      }
+    }
+  }
+}
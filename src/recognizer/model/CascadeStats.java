@@ -0,0 +1,179 @@
+package recognizer.model;
+
+/**
+ * Counters of the composite recognition done by a recognizer, to measure the cost of
+ * its cascades. A cascade is the recognition that follows one add: it tries the due
+ * rules until none is due, and a composite formed by a rule makes the rules that take
+ * it due. The depth of a cascade is the length of its longest chain of composites,
+ * each formed with the one before.
+ *
+ * <p>The counters of a recognizer are updated as it works; getStats returns a copy.
+ */
+public final class CascadeStats {
+
+  private long cascades;
+  private long evaluations;
+  private long formed;
+  private long probes;
+  private long skipped;
+  private long truncated;
+  private int maxDepth;
+  private long nanos;
+  private final long[] ruleEvaluations;
+  private final long[] ruleFormed;
+
+  /**
+   * Constructs zero counters for a number of rules.
+   */
+  CascadeStats(int rules) {
+    ruleEvaluations = new long[rules];
+    ruleFormed = new long[rules];
+  }
+
+  /**
+   * Constructs a copy of the counters.
+   */
+  CascadeStats(CascadeStats other) {
+    cascades = other.cascades;
+    evaluations = other.evaluations;
+    formed = other.formed;
+    probes = other.probes;
+    skipped = other.skipped;
+    truncated = other.truncated;
+    maxDepth = other.maxDepth;
+    nanos = other.nanos;
+    ruleEvaluations = other.ruleEvaluations.clone();
+    ruleFormed = other.ruleFormed.clone();
+  }
+
+  void evaluated(int rule) {
+    evaluations++;
+    ruleEvaluations[rule]++;
+  }
+
+  void formed(int rule, int depth) {
+    formed++;
+    ruleFormed[rule]++;
+    maxDepth = Math.max(maxDepth, depth);
+  }
+
+  void probed() {
+    probes++;
+  }
+
+  void skipped() {
+    skipped++;
+  }
+
+  void finished(long cascadeNanos, boolean wasTruncated) {
+    cascades++;
+    nanos += cascadeNanos;
+    if (wasTruncated) {
+      truncated++;
+    }
+  }
+
+  /**
+   * Get the number of cascades, one per add that added a symbol.
+   *
+   * @return the number of cascades
+   */
+  public long getCascades() {
+    return cascades;
+  }
+
+  /**
+   * Get the number of times a rule was tried, in all cascades.
+   *
+   * @return the number of rule evaluations
+   */
+  public long getEvaluations() {
+    return evaluations;
+  }
+
+  /**
+   * Get the number of times a rule was tried, in all cascades.
+   *
+   * @param rule the position of the rule in the registry
+   * @return the number of evaluations of the rule
+   */
+  public long getEvaluations(int rule) {
+    return ruleEvaluations[rule];
+  }
+
+  /**
+   * Get the number of composite symbols formed, in all cascades.
+   *
+   * @return the number of composite symbols formed
+   */
+  public long getFormed() {
+    return formed;
+  }
+
+  /**
+   * Get the number of composite symbols formed by a rule, in all cascades.
+   *
+   * @param rule the position of the rule in the registry
+   * @return the number of composite symbols formed by the rule
+   */
+  public long getFormed(int rule) {
+    return ruleFormed[rule];
+  }
+
+  /**
+   * Get the number of combinations of candidates probed, in all cascades.
+   *
+   * @return the number of probes
+   */
+  public long getProbes() {
+    return probes;
+  }
+
+  /**
+   * Get the number of combinations of candidates not probed because their rule had
+   * already rejected them, in all cascades.
+   *
+   * @return the number of combinations skipped
+   */
+  public long getSkipped() {
+    return skipped;
+  }
+
+  /**
+   * Get the number of cascades stopped by the bound on evaluations before reaching a
+   * point where no rule was due.
+   *
+   * @return the number of truncated cascades
+   */
+  public long getTruncated() {
+    return truncated;
+  }
+
+  /**
+   * Get the greatest depth of a cascade: 1 when a composite was formed from added
+   * symbols only, 2 when a composite was formed with one formed in the same cascade,
+   * and so on.
+   *
+   * @return the greatest depth, 0 when no composite was formed
+   */
+  public int getMaxDepth() {
+    return maxDepth;
+  }
+
+  /**
+   * Get the time spent in all cascades.
+   *
+   * @return the time in nanoseconds
+   */
+  public long getNanos() {
+    return nanos;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("(CascadeStats %d cascades, %d evaluations, %d formed, "
+        + "%d probes, %d skipped, %d truncated, depth %d, %.2f us/cascade)", cascades,
+        evaluations, formed, probes, skipped, truncated, maxDepth,
+        cascades == 0 ? 0 : nanos / 1e3 / cascades);
+  }
+}
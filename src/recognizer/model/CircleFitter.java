@@ -1,43 +1,56 @@
 package recognizer.model;
 
 import java.util.List;
+import recognizer.symbol.BasicSymbol;
 import recognizer.symbol.Circle;
 import recognizer.symbol.IPoint;
 
 /**
  * Fits a circle, given points.
- * Edge cases: if any the divider, r, n, d is zero, the goodness = 0, max not fit value.
+ * Edge cases: if any the divider, r, n, d is zero, the goodness = 0, max not fit value,
+ * and there is no fitted circle.
  */
 public class CircleFitter extends FitterAbstract {
 
+  protected double cx;
+  protected double cy;
+  protected double r;
+  protected boolean valid;
+
+  public CircleFitter() {
+    super();
+  }
+
   public CircleFitter(List<IPoint> points) {
     super(points);
   }
 
+  public CircleFitter(List<IPoint> points, Moments moments) {
+    super(points, moments);
+  }
+
+  public CircleFitter(double[] xs, double[] ys, int n) {
+    super(xs, ys, n);
+  }
+
+  public CircleFitter(double[] xs, double[] ys, int n, Moments moments) {
+    super(xs, ys, n, moments);
+  }
+
   /**
-   * This method sets the goodness of fit and basic symbol instance variable of the class.
+   * This method solves the center and the radius of the circle from the sums.
    */
-  public void fit() {
-    //compute Sx, Sy, Sxy, Sxx, Syy, Sx2y2, Sxx2y2, Syx2y2
-    int n = points.size();
-    double sX = 0;
-    double sY = 0;
-    double sXY = 0;
-    double sXX = 0;
-    double sYY = 0;
-    double sX2y2 = 0;
-    double sXx2y2 = 0;
-    double sYx2y2 = 0;
-    for (IPoint p : points) {
-      sX += p.getX();
-      sY += p.getY();
-      sXY += p.getX() * p.getY();
-      sXX += p.getX() * p.getX();
-      sYY += p.getY() * p.getY();
-      sX2y2 += p.getX() * p.getX() + p.getY() * p.getY();
-      sXx2y2 += p.getX() * (p.getX() * p.getX() + p.getY() * p.getY());
-      sYx2y2 += p.getY() * (p.getX() * p.getX() + p.getY() * p.getY());
-    }
+  @Override
+  protected void solve() {
+    //read Sx, Sy, Sxy, Sxx, Syy, Sx2y2, Sxx2y2, Syx2y2 from the shared sums
+    double sX = moments.getSx();
+    double sY = moments.getSy();
+    double sXY = moments.getSxy();
+    double sXX = moments.getSxx();
+    double sYY = moments.getSyy();
+    double sX2y2 = moments.getSx2y2();
+    double sXx2y2 = moments.getSxx2y2();
+    double sYx2y2 = moments.getSyx2y2();
 
     //compute d, da,db,dc
     double d = sXX * (n * sYY - sY * sY) - sXY * (n * sXY - sX * sY) + sX * (sXY * sY - sYY * sX);
@@ -48,9 +61,9 @@ public class CircleFitter extends FitterAbstract {
     double dc = sXX * (sYY * sX2y2 - sYx2y2 * sY) - sXY * (sXY * sX2y2 - sYx2y2 * sX)
         + sXx2y2 * (sXY * sY - sYY * sX);
 
-    //cannot divide by 0, return 0, not fit, max not fit val.
+    //cannot divide by 0, not fit.
+    valid = false;
     if (d == 0) {
-      this.goodness = 0;
       return;
     }
 
@@ -60,30 +73,49 @@ public class CircleFitter extends FitterAbstract {
     double c = dc / d;
 
     //compute cx, cy, r
-    double cx = a / 2;
-    double cy = b / 2;
-    double r = Math.sqrt(c + cx * cx + cy * cy);
+    cx = a / 2;
+    cy = b / 2;
+    r = Math.sqrt(c + cx * cx + cy * cy);
 
-    //set the symbol
-    basicSymbol = new Circle(cx, cy, r);
+    //a circle needs a positive radius.
+    valid = r > 0;
+  }
 
+  /**
+   * This method sets the goodness of fit of the solved circle.
+   */
+  @Override
+  protected void evaluate() {
     //cannot divide by 0, return 0, not fit, max not fit val.
-    if (n == 0 || r == 0) {
+    if (!valid || n == 0) {
       goodness = 0;
       return;
     }
 
     //compute d
     double m = 0;
-    for (IPoint p : points) {
-      double di = Math.abs((p.getX() - cx) * (p.getX() - cx)
-          + (p.getY() - cy) * (p.getY() - cy) - (r * r));
+    for (int i = 0; i < n; i++) {
+      double di = Math.abs((xs[i] - cx) * (xs[i] - cx)
+          + (ys[i] - cy) * (ys[i] - cy) - (r * r));
       m += di;
     }
 
     //set goodness
     double q = Math.sqrt(m) / n;
     goodness = 1 - Math.min(1, q / r);
-    System.out.println(goodness);
+  }
+
+  /**
+   * Get the circle solved from the sums, without evaluating its goodness.
+   *
+   * @return the solved circle, or null if there is none
+   */
+  Circle getSolvedCircle() {
+    return valid ? new Circle(cx, cy, r) : null;
+  }
+
+  @Override
+  protected BasicSymbol createSymbol() {
+    return valid ? new Circle(cx, cy, r) : null;
   }
 }
@@ -0,0 +1,110 @@
+package recognizer.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import recognizer.symbol.Symbol;
+
+/**
+ * A rule to form one type of composite symbol, given by the types of its components,
+ * a probe that checks candidate components and a constructor.
+ *
+ * <p>The signature lists the type of each component, in the order the components are
+ * given to the probe and the constructor. The recognizer takes the symbols near the
+ * new symbol and the most recent ones of each type in the signature as the
+ * candidates, and gives those of the same type the oldest first, so a signature of
+ * three lines is tried on three lines in drawing order.
+ */
+public final class CompositeRule {
+
+  private final String name;
+  private final Predicate<List<Symbol>> probe;
+  private final Function<List<Symbol>, Symbol> constructor;
+  private final List<Class<? extends Symbol>> signature;
+
+  /**
+   * Constructs a rule.
+   *
+   * @param name the name of the composite symbol, for messages
+   * @param probe checks if candidate components can form the composite symbol,
+   *        without throwing, from the components only, since the combinations it
+   *        rejects are not probed again
+   * @param constructor constructs the composite symbol from components that passed
+   *        the probe
+   * @param signature the type of each component
+   * @throws IllegalArgumentException when an argument is null or the signature is empty
+   */
+  @SafeVarargs
+  public CompositeRule(String name, Predicate<List<Symbol>> probe,
+                       Function<List<Symbol>, Symbol> constructor,
+                       Class<? extends Symbol>... signature) {
+    if (name == null || probe == null || constructor == null || signature == null
+        || signature.length == 0) {
+      throw new IllegalArgumentException("Invalid rule.");
+    }
+    List<Class<? extends Symbol>> types = new ArrayList<>();
+    for (Class<? extends Symbol> type : signature) {
+      if (type == null) {
+        throw new IllegalArgumentException("Invalid rule.");
+      }
+      types.add(type);
+    }
+    this.name = name;
+    this.probe = probe;
+    this.constructor = constructor;
+    this.signature = Collections.unmodifiableList(types);
+  }
+
+  /**
+   * Get the name of the composite symbol this rule forms.
+   *
+   * @return the name
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Get the type of each component, in order.
+   *
+   * @return a read-only list of types
+   */
+  public List<Class<? extends Symbol>> getSignature() {
+    return signature;
+  }
+
+  /**
+   * Whether a symbol of this type can be a component, that is whether it is an
+   * instance of one of the types of the signature.
+   *
+   * @param type the type of a symbol
+   * @return true if the rule takes symbols of this type
+   */
+  public boolean takes(Class<?> type) {
+    for (Class<? extends Symbol> component : signature) {
+      if (component.isAssignableFrom(type)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  boolean probe(List<Symbol> components) {
+    return probe.test(components);
+  }
+
+  Symbol form(List<Symbol> components) {
+    return constructor.apply(components);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder("(" + name);
+    for (Class<? extends Symbol> type : signature) {
+      builder.append(' ').append(type.getSimpleName());
+    }
+    return builder.append(')').toString();
+  }
+}
@@ -0,0 +1,289 @@
+package recognizer.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import recognizer.symbol.BasicSymbol;
+import recognizer.symbol.Line;
+
+/**
+ * Splits a stroke drawn as a polyline, such as a triangle drawn without lifting the
+ * mouse, into one line segment per side, by finding its corners. It follows the
+ * ShortStraw corner finder, and each step is a single pass over the points.
+ *
+ * <p>The stroke is first resampled at an even spacing of 1/40 of its bounding box
+ * diagonal, so that the speed of the hand does not matter. For every resampled point,
+ * the straw is the distance between the points WINDOW steps before and after it. On a
+ * straight part the straw is close to 2 * WINDOW spacings, at a corner it is shorter.
+ * The corners are the local minima of the straws below a fraction of their median,
+ * the median being found by selection rather than sorting.
+ *
+ * <p>A corner is then dropped if the stroke turns by less than MIN_TURN there, or if
+ * the stroke between the corners around it is still straight, so a slight bend does
+ * not split a side and a curve is not cut into many short sides. A part is straight
+ * when no point of it is farther than STRAIGHTNESS times its length from the segment
+ * joining its ends. If any part between the remaining corners is not straight, the
+ * stroke is not a polyline and is not split. Strokes of fewer than MIN_POINTS points are too
+ * sparse to tell corners from curves, and are not split either.
+ */
+public class CornerSegmenter {
+
+  private static final int MIN_POINTS = 20;
+  private static final int WINDOW = 3;
+  private static final double SPACING_FRACTION = 1.0 / 40;
+  private static final double MEDIAN_FRACTION = 0.95;
+  private static final double STRAIGHTNESS = 0.08;
+  private static final double MIN_TURN = Math.toRadians(45);
+
+  private double[] rx;
+  private double[] ry;
+  private double[] straws;
+  private double[] scratch;
+  private int[] corners;
+
+  /**
+   * Constructs a segmenter. The working arrays are reused between strokes.
+   */
+  public CornerSegmenter() {
+    rx = new double[0];
+    ry = new double[0];
+    straws = new double[0];
+    scratch = new double[0];
+    corners = new int[0];
+  }
+
+  /**
+   * Split the stroke into line segments at its corners.
+   *
+   * @param stroke the stroke to split
+   * @return the line segments in drawing order, or an empty list if the stroke is not
+   *         a polyline of at least two segments
+   */
+  public List<BasicSymbol> segment(StrokeBuffer stroke) {
+    List<BasicSymbol> lines = new ArrayList<>();
+    if (stroke.size() < MIN_POINTS) {
+      return lines;
+    }
+    int m = resample(stroke);
+    if (m < 2 * WINDOW + 1) {
+      return lines;
+    }
+    int count = findCorners(m);
+    count = dropStraightCorners(count);
+    if (count < 3) {
+      return lines;
+    }
+    for (int i = 1; i < count; i++) {
+      if (!isStraight(corners[i - 1], corners[i])) {
+        return new ArrayList<>();
+      }
+    }
+    for (int i = 1; i < count; i++) {
+      int a = corners[i - 1];
+      int b = corners[i];
+      if (rx[a] == rx[b] && ry[a] == ry[b]) {
+        return new ArrayList<>();
+      }
+      lines.add(new Line(rx[a], ry[a], rx[b], ry[b]));
+    }
+    return lines;
+  }
+
+  /**
+   * Resample the stroke at an even spacing along its path into rx and ry.
+   *
+   * @return the number of resampled points, 0 when the stroke has no extent
+   */
+  private int resample(StrokeBuffer stroke) {
+    int n = stroke.size();
+    if (n < 2) {
+      return 0;
+    }
+    double[] xs = stroke.getXs();
+    double[] ys = stroke.getYs();
+    double minX = xs[0];
+    double maxX = xs[0];
+    double minY = ys[0];
+    double maxY = ys[0];
+    double length = 0;
+    for (int i = 1; i < n; i++) {
+      minX = Math.min(minX, xs[i]);
+      maxX = Math.max(maxX, xs[i]);
+      minY = Math.min(minY, ys[i]);
+      maxY = Math.max(maxY, ys[i]);
+      length += Math.hypot(xs[i] - xs[i - 1], ys[i] - ys[i - 1]);
+    }
+    double spacing = Math.hypot(maxX - minX, maxY - minY) * SPACING_FRACTION;
+    if (spacing == 0) {
+      return 0;
+    }
+    int capacity = (int) (length / spacing) + 2;
+    if (rx.length < capacity) {
+      rx = new double[capacity];
+      ry = new double[capacity];
+    }
+
+    //walk along the path, dropping a point every spacing.
+    int m = 0;
+    rx[m] = xs[0];
+    ry[m] = ys[0];
+    m++;
+    double carried = 0;
+    double px = xs[0];
+    double py = ys[0];
+    for (int i = 1; i < n; i++) {
+      double d = Math.hypot(xs[i] - px, ys[i] - py);
+      while (carried + d >= spacing && m < capacity - 1) {
+        double t = (spacing - carried) / d;
+        px += t * (xs[i] - px);
+        py += t * (ys[i] - py);
+        rx[m] = px;
+        ry[m] = py;
+        m++;
+        d = Math.hypot(xs[i] - px, ys[i] - py);
+        carried = 0;
+      }
+      carried += d;
+      px = xs[i];
+      py = ys[i];
+    }
+    if (rx[m - 1] != xs[n - 1] || ry[m - 1] != ys[n - 1]) {
+      rx[m] = xs[n - 1];
+      ry[m] = ys[n - 1];
+      m++;
+    }
+    return m;
+  }
+
+  /**
+   * Find the corners of the m resampled points into corners, the first and the
+   * last point included.
+   *
+   * @return the number of corners
+   */
+  private int findCorners(int m) {
+    if (straws.length < m) {
+      straws = new double[m];
+      scratch = new double[m];
+      corners = new int[m];
+    }
+    for (int i = WINDOW; i < m - WINDOW; i++) {
+      straws[i] = Math.hypot(rx[i + WINDOW] - rx[i - WINDOW], ry[i + WINDOW] - ry[i - WINDOW]);
+    }
+    int k = m - 2 * WINDOW;
+    System.arraycopy(straws, WINDOW, scratch, 0, k);
+    double threshold = select(scratch, k, k / 2) * MEDIAN_FRACTION;
+
+    int count = 0;
+    corners[count++] = 0;
+    for (int i = WINDOW; i < m - WINDOW; i++) {
+      if (straws[i] < threshold && isShortestStraw(i, m)) {
+        corners[count++] = i;
+      }
+    }
+    corners[count++] = m - 1;
+    return count;
+  }
+
+  /**
+   * Whether the straw of point i is the shortest within WINDOW points on either side,
+   * the first one winning a tie.
+   */
+  private boolean isShortestStraw(int i, int m) {
+    for (int j = Math.max(WINDOW, i - WINDOW); j < Math.min(m - WINDOW, i + WINDOW + 1); j++) {
+      if (straws[j] < straws[i] || (straws[j] == straws[i] && j < i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Drop the corners whose neighbours are joined by a straight part of the stroke,
+   * then the corners where the stroke turns by less than MIN_TURN, each in one pass
+   * from the first corner.
+   *
+   * @return the number of corners left
+   */
+  private int dropStraightCorners(int count) {
+    int kept = 1;
+    for (int i = 1; i < count - 1; i++) {
+      if (!isStraight(corners[kept - 1], corners[i + 1])) {
+        corners[kept++] = corners[i];
+      }
+    }
+    corners[kept++] = corners[count - 1];
+    count = kept;
+
+    kept = 1;
+    for (int i = 1; i < count - 1; i++) {
+      int a = corners[kept - 1];
+      int b = corners[i];
+      int c = corners[i + 1];
+      double turn = Math.abs(Math.atan2(ry[c] - ry[b], rx[c] - rx[b])
+          - Math.atan2(ry[b] - ry[a], rx[b] - rx[a]));
+      if (Math.min(turn, 2 * Math.PI - turn) >= MIN_TURN) {
+        corners[kept++] = corners[i];
+      }
+    }
+    corners[kept++] = corners[count - 1];
+    return kept;
+  }
+
+  /**
+   * Whether the resampled points from a to b lie on a straight part of the stroke.
+   */
+  private boolean isStraight(int a, int b) {
+    double dx = rx[b] - rx[a];
+    double dy = ry[b] - ry[a];
+    double length = Math.hypot(dx, dy);
+    if (length == 0) {
+      return false;
+    }
+    double tolerance = STRAIGHTNESS * length * length;
+    for (int i = a + 1; i < b; i++) {
+      //the cross product is the distance from the segment times its length.
+      double cross = dx * (ry[i] - ry[a]) - dy * (rx[i] - rx[a]);
+      if (Math.abs(cross) > tolerance) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Find the k-th smallest of the first n values, reordering them, in linear
+   * expected time.
+   */
+  private static double select(double[] values, int n, int k) {
+    int lo = 0;
+    int hi = n - 1;
+    while (lo < hi) {
+      double pivot = values[(lo + hi) >>> 1];
+      int i = lo;
+      int j = hi;
+      while (i <= j) {
+        while (values[i] < pivot) {
+          i++;
+        }
+        while (values[j] > pivot) {
+          j--;
+        }
+        if (i <= j) {
+          double tmp = values[i];
+          values[i] = values[j];
+          values[j] = tmp;
+          i++;
+          j--;
+        }
+      }
+      if (k <= j) {
+        hi = j;
+      } else if (k >= i) {
+        lo = i;
+      } else {
+        break;
+      }
+    }
+    return values[k];
+  }
+}
@@ -0,0 +1,105 @@
+package recognizer.model;
+
+/**
+ * Simplifies a complete stroke with the Ramer-Douglas-Peucker algorithm. The first
+ * and the last points are kept. Between two kept points, the point farthest from
+ * the segment joining them is kept if it is at least the tolerance away, and both
+ * halves are simplified again. Otherwise all the points in between are dropped.
+ *
+ * <p>The halves are kept on an explicit stack instead of recursion, so long strokes
+ * cannot overflow the call stack. The working arrays are reused between strokes.
+ */
+public class DouglasPeuckerSimplifier implements StrokeSimplifier {
+
+  private final double toleranceSquared;
+  private boolean[] kept;
+  private int[] stack;
+
+  /**
+   * Constructs a simplifier with the given tolerance.
+   *
+   * @param tolerance the distance from the simplified stroke below which a point is dropped
+   * @throws IllegalArgumentException when the tolerance is negative
+   */
+  public DouglasPeuckerSimplifier(double tolerance) {
+    if (tolerance < 0) {
+      throw new IllegalArgumentException("Tolerance cannot be negative.");
+    }
+    this.toleranceSquared = tolerance * tolerance;
+    this.kept = new boolean[0];
+    this.stack = new int[0];
+  }
+
+  @Override
+  public boolean keep(StrokeBuffer stroke, double x, double y) {
+    return true;
+  }
+
+  @Override
+  public StrokeBuffer simplify(StrokeBuffer stroke, StrokeBuffer out) {
+    int n = stroke.size();
+    if (n < 3) {
+      return stroke;
+    }
+    if (kept.length < n) {
+      kept = new boolean[n];
+      stack = new int[2 * n];
+    }
+    double[] xs = stroke.getXs();
+    double[] ys = stroke.getYs();
+    for (int i = 0; i < n; i++) {
+      kept[i] = false;
+    }
+    kept[0] = true;
+    kept[n - 1] = true;
+
+    //each pair on the stack is a segment whose inner points are not decided yet.
+    int top = 0;
+    stack[top++] = 0;
+    stack[top++] = n - 1;
+    while (top > 0) {
+      int last = stack[--top];
+      int first = stack[--top];
+      int farthest = -1;
+      double max = toleranceSquared;
+      for (int i = first + 1; i < last; i++) {
+        double d = distanceSquared(xs[i], ys[i], xs[first], ys[first], xs[last], ys[last]);
+        if (d >= max) {
+          max = d;
+          farthest = i;
+        }
+      }
+      if (farthest != -1) {
+        kept[farthest] = true;
+        stack[top++] = first;
+        stack[top++] = farthest;
+        stack[top++] = farthest;
+        stack[top++] = last;
+      }
+    }
+
+    out.clear();
+    for (int i = 0; i < n; i++) {
+      if (kept[i]) {
+        out.add(xs[i], ys[i]);
+      }
+    }
+    return out;
+  }
+
+  /**
+   * The squared distance from a point to the line through two points, or to the first
+   * of them when the two points are the same.
+   */
+  private static double distanceSquared(double x, double y, double x1, double y1,
+                                        double x2, double y2) {
+    double dx = x2 - x1;
+    double dy = y2 - y1;
+    double lengthSquared = dx * dx + dy * dy;
+    if (lengthSquared == 0) {
+      return (x - x1) * (x - x1) + (y - y1) * (y - y1);
+    }
+    double cross = dx * (y - y1) - dy * (x - x1);
+    return cross * cross / lengthSquared;
+  }
+}
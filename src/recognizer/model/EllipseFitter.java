@@ -0,0 +1,369 @@
+package recognizer.model;
+
+import java.util.List;
+import recognizer.symbol.BasicSymbol;
+import recognizer.symbol.Ellipse;
+import recognizer.symbol.IPoint;
+
+/**
+ * Fits an ellipse, given points, with the direct least squares fit of Fitzgibbon,
+ * in the numerically stable form of Halir and Flusser. The conic
+ * A x^2 + B xy + C y^2 + D x + E y + F = 0 with the smallest algebraic error is
+ * solved under the constraint 4AC - B^2 = 1, which makes it an ellipse.
+ *
+ * <p>The scatter matrix of the fit only needs the sums of the products of x and y
+ * up to the fourth order, so the ellipse is solved from the shared sums without a
+ * pass over the points. The sums are first moved to the center of the points and
+ * scaled by their spread, so the matrix stays well conditioned for pixel coordinates.
+ * The solve then comes down to the eigenvectors of a 3x3 matrix.
+ *
+ * <p>The goodness is measured like the circle fitter: with (u, v) a point in the
+ * frame of the ellipse, it is 1 - sqrt(sum(|u^2 / a^2 + v^2 / b^2 - 1|)) / n.
+ *
+ * <p>Edge cases: fewer than MIN_POINTS points, points on a line, or a solution that is
+ * not a real ellipse give goodness = 0 and no fitted ellipse. An ellipse whose minor
+ * axis is more than NEAR_CIRCLE of its major axis is left to the circle fitter.
+ *
+ * <p>A hand-drawn circle is seldom round, so the ellipse must also fit clearly better
+ * than a circle. The circle goodness is measured on the same scale, 1 minus the
+ * misfit, and the ellipse is kept only when the misfit of the circle is at least
+ * CLEARLY_WORSE times its own. Otherwise it is left to the circle fitter, so that a
+ * slightly oval circle can still form composite symbols.
+ */
+public class EllipseFitter extends FitterAbstract {
+
+  private static final int MIN_POINTS = 6;
+  private static final double NEAR_CIRCLE = 0.8;
+  private static final double CLEARLY_WORSE = 2;
+
+  private final CircleFitter circle = new CircleFitter();
+
+  private double cx;
+  private double cy;
+  private double semiMajor;
+  private double semiMinor;
+  private double angle;
+  private boolean valid;
+
+  public EllipseFitter() {
+    super();
+  }
+
+  public EllipseFitter(List<IPoint> points) {
+    super(points);
+  }
+
+  public EllipseFitter(List<IPoint> points, Moments moments) {
+    super(points, moments);
+  }
+
+  public EllipseFitter(double[] xs, double[] ys, int n) {
+    super(xs, ys, n);
+  }
+
+  public EllipseFitter(double[] xs, double[] ys, int n, Moments moments) {
+    super(xs, ys, n, moments);
+  }
+
+  /**
+   * This method solves the center, the axes and the orientation of the ellipse from
+   * the sums.
+   */
+  @Override
+  protected void solve() {
+    valid = false;
+    if (n < MIN_POINTS) {
+      return;
+    }
+
+    //sums about the center of the points, scaled by the spread of the points.
+    double mx = moments.getSx() / n;
+    double my = moments.getSy() / n;
+    double[][] mu = centralSums(mx, my);
+    double s = Math.sqrt((mu[2][0] + mu[0][2]) / n);
+    if (!(s > 0)) {
+      return;
+    }
+    for (int p = 0; p <= 4; p++) {
+      for (int q = 0; p + q <= 4; q++) {
+        mu[p][q] /= Math.pow(s, p + q);
+      }
+    }
+
+    //scatter matrices of the quadratic terms (x^2, xy, y^2) and the linear terms (x, y, 1).
+    double[][] s1 = {
+        {mu[4][0], mu[3][1], mu[2][2]},
+        {mu[3][1], mu[2][2], mu[1][3]},
+        {mu[2][2], mu[1][3], mu[0][4]}};
+    double[][] s2 = {
+        {mu[3][0], mu[2][1], mu[2][0]},
+        {mu[2][1], mu[1][2], mu[1][1]},
+        {mu[1][2], mu[0][3], mu[0][2]}};
+    double[][] s3 = {
+        {mu[2][0], mu[1][1], mu[1][0]},
+        {mu[1][1], mu[0][2], mu[0][1]},
+        {mu[1][0], mu[0][1], n}};
+
+    //the linear terms are solved from the quadratic ones: a2 = t * a1, t = -s3^-1 * s2^T.
+    double[][] s3Inverse = inverse(s3);
+    if (s3Inverse == null) {
+      return;
+    }
+    double[][] t = multiply(s3Inverse, transpose(s2));
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 3; j++) {
+        t[i][j] = -t[i][j];
+      }
+    }
+
+    //reduced scatter matrix, times the inverse of the constraint matrix.
+    double[][] m = multiply(s2, t);
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 3; j++) {
+        m[i][j] += s1[i][j];
+      }
+    }
+    double[][] reduced = {
+        {m[2][0] / 2, m[2][1] / 2, m[2][2] / 2},
+        {-m[1][0], -m[1][1], -m[1][2]},
+        {m[0][0] / 2, m[0][1] / 2, m[0][2] / 2}};
+
+    //the ellipse is the eigenvector that meets the constraint 4AC - B^2 > 0.
+    double[] a1 = null;
+    for (double lambda : realEigenvalues(reduced)) {
+      double[] v = eigenvector(reduced, lambda);
+      if (v != null && 4 * v[0] * v[2] - v[1] * v[1] > 0) {
+        a1 = v;
+        break;
+      }
+    }
+    if (a1 == null) {
+      return;
+    }
+    double[] a2 = new double[3];
+    for (int i = 0; i < 3; i++) {
+      a2[i] = t[i][0] * a1[0] + t[i][1] * a1[1] + t[i][2] * a1[2];
+    }
+    toGeometric(a1[0], a1[1], a1[2], a2[0], a2[1], a2[2], mx, my, s);
+  }
+
+  /**
+   * This method sets the goodness of fit of the solved ellipse.
+   */
+  @Override
+  protected void evaluate() {
+    if (!valid) {
+      goodness = 0;
+      return;
+    }
+    double cos = Math.cos(angle);
+    double sin = Math.sin(angle);
+    double aa = semiMajor * semiMajor;
+    double bb = semiMinor * semiMinor;
+    double m = 0;
+    for (int i = 0; i < n; i++) {
+      double dx = xs[i] - cx;
+      double dy = ys[i] - cy;
+      double u = dx * cos + dy * sin;
+      double v = dy * cos - dx * sin;
+      m += Math.abs(u * u / aa + v * v / bb - 1);
+    }
+    goodness = 1 - Math.min(1, Math.sqrt(m) / n);
+
+    circle.fit(xs, ys, n, moments);
+    if (1 - circle.getGoodness() < CLEARLY_WORSE * (1 - goodness)) {
+      valid = false;
+      goodness = 0;
+    }
+  }
+
+  @Override
+  protected BasicSymbol createSymbol() {
+    return valid ? new Ellipse(cx, cy, semiMajor, semiMinor, angle) : null;
+  }
+
+  /**
+   * The sums of (x - mx)^p (y - my)^q for p + q up to 4, expanded from the raw sums.
+   *
+   * @return the sums indexed by p and q
+   */
+  private double[][] centralSums(double mx, double my) {
+    double[][] raw = new double[5][5];
+    raw[0][0] = n;
+    raw[1][0] = moments.getSx();
+    raw[0][1] = moments.getSy();
+    raw[2][0] = moments.getSxx();
+    raw[1][1] = moments.getSxy();
+    raw[0][2] = moments.getSyy();
+    raw[3][0] = moments.getSxxx();
+    raw[2][1] = moments.getSxxy();
+    raw[1][2] = moments.getSxyy();
+    raw[0][3] = moments.getSyyy();
+    raw[4][0] = moments.getSxxxx();
+    raw[3][1] = moments.getSxxxy();
+    raw[2][2] = moments.getSxxyy();
+    raw[1][3] = moments.getSxyyy();
+    raw[0][4] = moments.getSyyyy();
+    int[][] binomial = {{1}, {1, 1}, {1, 2, 1}, {1, 3, 3, 1}, {1, 4, 6, 4, 1}};
+
+    double[][] mu = new double[5][5];
+    for (int p = 0; p <= 4; p++) {
+      for (int q = 0; p + q <= 4; q++) {
+        double sum = 0;
+        for (int i = 0; i <= p; i++) {
+          for (int j = 0; j <= q; j++) {
+            sum += binomial[p][i] * binomial[q][j]
+                * Math.pow(-mx, p - i) * Math.pow(-my, q - j) * raw[i][j];
+          }
+        }
+        mu[p][q] = sum;
+      }
+    }
+    //the first order sums about the center are zero, up to rounding.
+    mu[1][0] = 0;
+    mu[0][1] = 0;
+    return mu;
+  }
+
+  /**
+   * Set the center, axes and orientation of the conic a x^2 + b xy + c y^2 + d x + e y + f,
+   * given in coordinates moved by (mx, my) and scaled by s.
+   */
+  private void toGeometric(double a, double b, double c, double d, double e, double f,
+                           double mx, double my, double s) {
+    //the center is where the gradient of the conic is zero.
+    double det = 4 * a * c - b * b;
+    double u0 = (b * e - 2 * c * d) / det;
+    double v0 = (b * d - 2 * a * e) / det;
+    double f0 = a * u0 * u0 + b * u0 * v0 + c * v0 * v0 + d * u0 + e * v0 + f;
+
+    //the axes are along the eigenvectors of the quadratic part.
+    double theta = Math.atan2(b, a - c) / 2;
+    double cos = Math.cos(theta);
+    double sin = Math.sin(theta);
+    double lambda1 = a * cos * cos + b * sin * cos + c * sin * sin;
+    double lambda2 = a + c - lambda1;
+    double axis1 = -f0 / lambda1;
+    double axis2 = -f0 / lambda2;
+    if (!(axis1 > 0) || !(axis2 > 0)) {
+      return;
+    }
+    axis1 = Math.sqrt(axis1) * s;
+    axis2 = Math.sqrt(axis2) * s;
+
+    cx = mx + u0 * s;
+    cy = my + v0 * s;
+    semiMajor = Math.max(axis1, axis2);
+    semiMinor = Math.min(axis1, axis2);
+    angle = axis1 >= axis2 ? theta : theta + Math.PI / 2;
+    valid = semiMinor <= NEAR_CIRCLE * semiMajor;
+  }
+
+  /**
+   * The real eigenvalues of a 3x3 matrix, the roots of its characteristic polynomial.
+   */
+  private static double[] realEigenvalues(double[][] m) {
+    //lambda^3 + p2 lambda^2 + p1 lambda + p0 = 0
+    double p2 = -(m[0][0] + m[1][1] + m[2][2]);
+    double p1 = m[0][0] * m[1][1] - m[0][1] * m[1][0]
+        + m[0][0] * m[2][2] - m[0][2] * m[2][0]
+        + m[1][1] * m[2][2] - m[1][2] * m[2][1];
+    double p0 = -determinant(m);
+
+    //depressed cubic t^3 + p t + q = 0, with lambda = t - p2 / 3.
+    double shift = p2 / 3;
+    double p = p1 - p2 * shift;
+    double q = 2 * shift * shift * shift - shift * p1 + p0;
+    double discriminant = q * q / 4 + p * p * p / 27;
+    if (discriminant > 0) {
+      double root = Math.sqrt(discriminant);
+      return new double[] {Math.cbrt(-q / 2 + root) + Math.cbrt(-q / 2 - root) - shift};
+    }
+    //three real roots.
+    double r = Math.sqrt(-p / 3);
+    if (r == 0) {
+      return new double[] {-shift};
+    }
+    double phi = Math.acos(Math.max(-1, Math.min(1, -q / (2 * r * r * r))));
+    return new double[] {
+        2 * r * Math.cos(phi / 3) - shift,
+        2 * r * Math.cos((phi + 2 * Math.PI) / 3) - shift,
+        2 * r * Math.cos((phi + 4 * Math.PI) / 3) - shift};
+  }
+
+  /**
+   * An eigenvector of a 3x3 matrix for the given eigenvalue, the longest cross product
+   * of two rows of (m - lambda I), or null if there is none.
+   */
+  private static double[] eigenvector(double[][] m, double lambda) {
+    double[][] rows = new double[3][];
+    for (int i = 0; i < 3; i++) {
+      rows[i] = m[i].clone();
+      rows[i][i] -= lambda;
+    }
+    double[] best = null;
+    double bestNorm = 0;
+    for (int i = 0; i < 3; i++) {
+      double[] r1 = rows[i];
+      double[] r2 = rows[(i + 1) % 3];
+      double[] v = {
+          r1[1] * r2[2] - r1[2] * r2[1],
+          r1[2] * r2[0] - r1[0] * r2[2],
+          r1[0] * r2[1] - r1[1] * r2[0]};
+      double norm = v[0] * v[0] + v[1] * v[1] + v[2] * v[2];
+      if (norm > bestNorm) {
+        bestNorm = norm;
+        best = v;
+      }
+    }
+    return best;
+  }
+
+  private static double determinant(double[][] m) {
+    return m[0][0] * (m[1][1] * m[2][2] - m[1][2] * m[2][1])
+        - m[0][1] * (m[1][0] * m[2][2] - m[1][2] * m[2][0])
+        + m[0][2] * (m[1][0] * m[2][1] - m[1][1] * m[2][0]);
+  }
+
+  /**
+   * The inverse of a 3x3 matrix, or null if it is singular.
+   */
+  private static double[][] inverse(double[][] m) {
+    double det = determinant(m);
+    if (det == 0) {
+      return null;
+    }
+    double[][] inverse = new double[3][3];
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 3; j++) {
+        //cofactor of (j, i), over the determinant.
+        int r1 = (j + 1) % 3;
+        int r2 = (j + 2) % 3;
+        int c1 = (i + 1) % 3;
+        int c2 = (i + 2) % 3;
+        inverse[i][j] = (m[r1][c1] * m[r2][c2] - m[r1][c2] * m[r2][c1]) / det;
+      }
+    }
+    return inverse;
+  }
+
+  private static double[][] transpose(double[][] m) {
+    double[][] toReturn = new double[3][3];
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 3; j++) {
+        toReturn[i][j] = m[j][i];
+      }
+    }
+    return toReturn;
+  }
+
+  private static double[][] multiply(double[][] a, double[][] b) {
+    double[][] toReturn = new double[3][3];
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 3; j++) {
+        toReturn[i][j] = a[i][0] * b[0][j] + a[i][1] * b[1][j] + a[i][2] * b[2][j];
+      }
+    }
+    return toReturn;
+  }
+}
@@ -0,0 +1,37 @@
+package recognizer.model;
+
+import recognizer.symbol.BasicSymbol;
+
+/**
+ * The result of fitting one stroke: the selected basic symbol and its goodness of fit.
+ * A stroke for which no fitter found a symbol has a null symbol and a goodness of 0.
+ */
+public class FitResult {
+
+  private final BasicSymbol symbol;
+  private final double goodness;
+
+  /**
+   * Constructs a result.
+   *
+   * @param symbol the fitted symbol, or null if there is none
+   * @param goodness the goodness of fit of the symbol
+   */
+  public FitResult(BasicSymbol symbol, double goodness) {
+    this.symbol = symbol;
+    this.goodness = goodness;
+  }
+
+  public BasicSymbol getSymbol() {
+    return symbol;
+  }
+
+  public double getGoodness() {
+    return goodness;
+  }
+
+  @Override
+  public String toString() {
+    return symbol + " " + goodness;
+  }
+}
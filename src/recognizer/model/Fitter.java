@@ -21,4 +21,15 @@ public interface Fitter {
    */
   BasicSymbol getFittedBasicSymbol();
 
+  /**
+   * Method fits the first n points of the coordinate arrays, replacing any previous
+   * result, so that one fitter can be reused for many sets of points.
+   *
+   * @param xs x coordinates of the points
+   * @param ys y coordinates of the points
+   * @param n number of points
+   * @param moments sums of the same points
+   */
+  void fit(double[] xs, double[] ys, int n, Moments moments);
+
 }
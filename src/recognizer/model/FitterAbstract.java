@@ -7,31 +7,168 @@ import recognizer.symbol.IPoint;
 /**
  * Abstract class for line and circle fitters to avoid code duplication.
  * The fit method sets the goodness of fit and basic symbol variable of each class.
+ * The sums of the points are kept in a Moments object, which can be shared by
+ * several fitters of the same points so the sums are only collected once.
+ *
+ * <p>The points are read from two parallel arrays of coordinates, of which only
+ * the first n entries are used. A list of points is copied into arrays first.
+ *
+ * <p>A fitter can be reused: each call to fit replaces the previous points and
+ * result. Fitting only solves the closed-form parameters from the sums. The
+ * goodness, which needs a pass over the points, is evaluated on the first call to
+ * getGoodness or getFittedBasicSymbol, and the symbol object is only created when
+ * it is asked for. The arrays are not copied, so the result must be read before
+ * they are changed.
  */
 public abstract class FitterAbstract implements Fitter {
 
-  protected List<IPoint> points;
+  protected double[] xs;
+  protected double[] ys;
+  protected int n;
+  protected Moments moments;
   protected double goodness;
   protected BasicSymbol basicSymbol;
+  private final Moments ownMoments;
+  private boolean evaluated;
+  private boolean symbolCreated;
 
+  /**
+   * Constructor for a reusable fitter with no points yet.
+   */
+  public FitterAbstract() {
+    this.ownMoments = new Moments();
+    fit(new double[0], new double[0], 0, ownMoments);
+  }
 
   public FitterAbstract(List<IPoint> points) {
-    this.points = points;
-    fit();
+    this(points, new Moments(points));
+  }
+
+  /**
+   * Constructor taking the already collected sums of the given points.
+   *
+   * @param points List of points
+   * @param moments sums of the same points
+   */
+  public FitterAbstract(List<IPoint> points, Moments moments) {
+    this.ownMoments = new Moments();
+    int size = points.size();
+    double[] pointsX = new double[size];
+    double[] pointsY = new double[size];
+    for (int i = 0; i < size; i++) {
+      pointsX[i] = points.get(i).getX();
+      pointsY[i] = points.get(i).getY();
+    }
+    fit(pointsX, pointsY, size, moments);
+  }
+
+  /**
+   * Constructor reading the points from coordinate arrays.
+   *
+   * @param xs x coordinates of the points
+   * @param ys y coordinates of the points
+   * @param n number of points, the first n entries of the arrays are used
+   */
+  public FitterAbstract(double[] xs, double[] ys, int n) {
+    this.ownMoments = new Moments();
+    fit(xs, ys, n);
+  }
+
+  /**
+   * Constructor reading the points from coordinate arrays, with the already
+   * collected sums of the same points.
+   *
+   * @param xs x coordinates of the points
+   * @param ys y coordinates of the points
+   * @param n number of points, the first n entries of the arrays are used
+   * @param moments sums of the same points
+   */
+  public FitterAbstract(double[] xs, double[] ys, int n, Moments moments) {
+    this.ownMoments = new Moments();
+    fit(xs, ys, n, moments);
   }
 
   @Override
   public double getGoodness() {
+    evaluateOnce();
     return goodness;
   }
 
   @Override
   public BasicSymbol getFittedBasicSymbol() {
+    evaluateOnce();
+    if (!symbolCreated) {
+      basicSymbol = createSymbol();
+      symbolCreated = true;
+    }
     return basicSymbol;
   }
 
+  @Override
+  public void fit(double[] xs, double[] ys, int n, Moments moments) {
+    this.xs = xs;
+    this.ys = ys;
+    this.n = n;
+    this.moments = moments;
+    fit();
+  }
+
   /**
-   * This method sets the goodness of fit and basic Symbol instance variable of the class.
+   * Fit the first n points of the coordinate arrays, collecting their sums into
+   * a buffer owned by this fitter.
+   *
+   * @param xs x coordinates of the points
+   * @param ys y coordinates of the points
+   * @param n number of points
    */
-  public abstract void fit();
+  public void fit(double[] xs, double[] ys, int n) {
+    ownMoments.clear();
+    ownMoments.addAll(xs, ys, n);
+    fit(xs, ys, n, ownMoments);
+  }
+
+  /**
+   * Fit the points of a stroke buffer, using the sums the buffer already keeps.
+   *
+   * @param stroke the stroke to fit
+   */
+  public void fit(StrokeBuffer stroke) {
+    fit(stroke.getXs(), stroke.getYs(), stroke.size(), stroke.getMoments());
+  }
+
+  /**
+   * This method resets the result and solves the fitted parameters of the current points
+   * again. The goodness and the basic symbol are evaluated when they are first asked for.
+   */
+  public void fit() {
+    goodness = 0;
+    basicSymbol = null;
+    evaluated = false;
+    symbolCreated = false;
+    solve();
+  }
+
+  /**
+   * Solve the parameters of the fitted symbol from the sums, without a pass over the points.
+   */
+  protected abstract void solve();
+
+  /**
+   * Set the goodness of fit of the solved parameters, using a pass over the points.
+   */
+  protected abstract void evaluate();
+
+  /**
+   * Create the fitted symbol from the evaluated parameters.
+   *
+   * @return a basic symbol, or null if the points cannot form one
+   */
+  protected abstract BasicSymbol createSymbol();
+
+  private void evaluateOnce() {
+    if (!evaluated) {
+      evaluate();
+      evaluated = true;
+    }
+  }
 }
@@ -0,0 +1,75 @@
+package recognizer.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An ordered list of fitters, each with the goodness it needs to be accepted.
+ *
+ * <p>The fitters are tried in the order they are registered. The first fitter that
+ * fits a symbol with a goodness at or above its threshold is selected and the rest
+ * are not run, so cheap and common fitters should be registered first. If no fitter
+ * is confident enough, the one with the highest goodness is selected, the later one
+ * winning a tie.
+ */
+public class FitterRegistry {
+
+  private final List<Fitter> fitters;
+  private final List<Double> thresholds;
+
+  /**
+   * Constructs an empty registry.
+   */
+  public FitterRegistry() {
+    fitters = new ArrayList<>();
+    thresholds = new ArrayList<>();
+  }
+
+  /**
+   * Add a fitter to the end of the registry.
+   *
+   * @param fitter a reusable fitter
+   * @param threshold the goodness at which the fitter is accepted without trying the rest
+   * @throws IllegalArgumentException when the fitter is null
+   */
+  public void register(Fitter fitter, double threshold) {
+    if (fitter == null) {
+      throw new IllegalArgumentException("Null fitter.");
+    }
+    fitters.add(fitter);
+    thresholds.add(threshold);
+  }
+
+  /**
+   * Get the number of registered fitters.
+   *
+   * @return the number of fitters
+   */
+  public int size() {
+    return fitters.size();
+  }
+
+  /**
+   * Fit the stroke with the registered fitters, in order, until one is confident enough.
+   *
+   * @param stroke the stroke to fit
+   * @return the selected fitter holding its result, or null if no fitter found a symbol
+   */
+  public Fitter select(StrokeBuffer stroke) {
+    Fitter best = null;
+    for (int i = 0; i < fitters.size(); i++) {
+      Fitter fitter = fitters.get(i);
+      fitter.fit(stroke.getXs(), stroke.getYs(), stroke.size(), stroke.getMoments());
+      if (fitter.getFittedBasicSymbol() == null) {
+        continue;
+      }
+      if (fitter.getGoodness() >= thresholds.get(i)) {
+        return fitter;
+      }
+      if (best == null || fitter.getGoodness() >= best.getGoodness()) {
+        best = fitter;
+      }
+    }
+    return best;
+  }
+}
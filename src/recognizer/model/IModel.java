@@ -1,6 +1,7 @@
 package recognizer.model;
 
 import java.util.List;
+import recognizer.symbol.BasicSymbol;
 import recognizer.symbol.IPoint;
 import recognizer.symbol.Symbol;
 
@@ -39,4 +40,15 @@ public interface IModel {
    * @return list of symbols with center point and critical fields.
    */
   List<Symbol> getSymbols();
+
+  /**
+   * Getting a guess of the basic symbol the points in the buffer will be recognized as,
+   * to show while the user is still dragging. It must be cheap enough to call on
+   * every dragged point. A model that cannot guess returns null.
+   *
+   * @return the guessed basic symbol, or null if there is no guess
+   */
+  default BasicSymbol getPreview() {
+    return null;
+  }
 }
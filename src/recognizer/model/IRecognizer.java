@@ -28,11 +28,25 @@ public interface IRecognizer {
   void addBasicSymbol(BasicSymbol symbol) throws IllegalArgumentException;
 
   /**
-   * Get a copy of all the symbols in the model. They can be a mix of basic
+   * Add several basic symbols to the model at once, such as the sides of a
+   * triangle drawn in one stroke. The symbols are added in order, as by
+   * addBasicSymbol, but the recognizer only tries to form composite symbols
+   * once, after all of them are added.
+   *
+   * @param symbols basic symbols of any type, in practice the line segments a
+   *        stroke was segmented into
+   * @throws IllegalArgumentException when the input or one of the symbols is null
+   */
+  void addBasicSymbols(List<BasicSymbol> symbols) throws IllegalArgumentException;
+
+  /**
+   * Get all the symbols in the model. They can be a mix of basic
    * symbols and composite symbols.
    * All symbol types: Line, Circle, Snowman, Triangle and EquilateralTriangle.
+   * The symbols are immutable and the list is a read-only snapshot, which does
+   * not change when symbols are added to the model later.
    *
-   * @return a list of symbols
+   * @return a read-only list of symbols
    */
   List<Symbol> getSymbols();
 
@@ -1,9 +1,9 @@
 package recognizer.model;
 
 import java.util.List;
+import recognizer.symbol.BasicSymbol;
 import recognizer.symbol.IPoint;
 import recognizer.symbol.Line;
-import recognizer.symbol.Point;
 
 /**
  * Fits a line of given points by calculating the degree of orientation to the y-axis.
@@ -21,76 +21,91 @@ public class LineFitter extends FitterAbstract {
   private double sXX;
   private double sYY;
   private double sXY;
+  private double avgX;
+  private double avgY;
+  private double a;
+  private double b;
+  private double tMax;
+  private double tMin;
+  private double tOMax;
+  private double tOMin;
+
+  public LineFitter() {
+    super();
+  }
 
   public LineFitter(List<IPoint> points) {
     super(points);
   }
 
+  public LineFitter(List<IPoint> points, Moments moments) {
+    super(points, moments);
+  }
+
+  public LineFitter(double[] xs, double[] ys, int n) {
+    super(xs, ys, n);
+  }
+
+  public LineFitter(double[] xs, double[] ys, int n, Moments moments) {
+    super(xs, ys, n, moments);
+  }
+
   /**
-   * This method sets the goodness of fit and basic symbol instance variable of the class.
+   * This method solves the center and the orientation of the line from the sums.
    */
-  public void fit() {
+  @Override
+  protected void solve() {
+    //no points, no line.
+    if (n == 0) {
+      return;
+    }
+
     //compute center points
-    IPoint s = getCenter(points);
+    avgX = moments.getSx() / n;
+    avgY = moments.getSy() / n;
 
     //use center point to compute tan(theta) = q
-    double q = computeQ(s);
+    double q = computeQ();
 
     //compute theta = m = arctan(q)
     double m = computeM(q);
 
     //compute a= cos(m/2); b = sin(m/2);
-    double a = Math.cos(m / 2);
-    double b = Math.sin(m / 2);
-
-    //avoid code duplication, using lambda function to find tMax and tMin.
-    //map list of points to a(x-xAvg) + b(y-yAvg).
-    double tMax = findTMax(a, b, s);
-    double tMin = findTMin(a, b, s);
-
-    //compute fitted line;
-    setFittedLine(a, b, s, tMax, tMin);
-
-    //find goodness of fit
-    setGoodness(a, b, s, tMax, tMin);
+    a = Math.cos(m / 2);
+    b = Math.sin(m / 2);
   }
 
   /**
-   * Computing the center points of given line.
-   *
-   * @param points List of points
-   * @return center position
+   * This method sets the goodness of fit of the solved line.
    */
-  private IPoint getCenter(List<IPoint> points) {
-    double sumX = 0;
-    double sumY = 0;
-    for (IPoint p : points) {
-      sumX += p.getX();
-      sumY += p.getY();
+  @Override
+  protected void evaluate() {
+    if (n == 0) {
+      goodness = 0;
+      return;
     }
-    double avgX = sumX / points.size();
-    double avgY = sumY / points.size();
-    //System.out.println("Center: " + avgX + "," + avgY);
-    return new Point(avgX, avgY);
+
+    //find tMax, tMin along the line and tOMax, tOMin across it in one pass.
+    //map list of points to a(x-xAvg) + b(y-yAvg) and b(x-xAvg) - a(y-yAvg).
+    findExtents();
+
+    //find goodness of fit
+    goodness = 1 - Math.min(1, (tOMax - tOMin) / (tMax - tMin));
   }
 
   /**
    * Compute the Q value of line fitting equation and set sXY, sXX, sYY for  later use.
+   * The sums about the center are derived from the shared raw sums,
+   * e.g. sum((x - xAvg)^2) = Sxx - Sx * Sx / n, so no pass over the points is needed.
    * If sXX == sYY, then Q value becomes Positive Infinity and later on theta becomes PI/2.
    *
-   * @param s Center point
    * @return Q value as double
    */
-  private double computeQ(IPoint s) {
+  private double computeQ() {
     //compute sXY, sXX, sYY
-    sXY = 0;
-    sXX = 0;
-    sYY = 0;
-    for (IPoint p : points) {
-      sXY += (p.getX() - s.getX()) * (p.getY() - s.getY());
-      sXX += (p.getX() - s.getX()) * (p.getX() - s.getX());
-      sYY += (p.getY() - s.getY()) * (p.getY() - s.getY());
-    }
+    sXY = moments.getSxy() - moments.getSx() * avgY;
+    sXX = moments.getSxx() - moments.getSx() * avgX;
+    sYY = moments.getSyy() - moments.getSy() * avgY;
 
     //compute q = 2Sxy/(sXX-sYY); tan(n) = q; tan(n) = sin(n)/cos(n)
     //division by zero, q = infinite,
@@ -130,65 +145,51 @@ public class LineFitter extends FitterAbstract {
   }
 
   /**
-   * Setting the fitted line after calculation.
-   * If two points end up being the same, return goodness = 0, and line null.
+   * Creating the fitted line after calculation.
+   * If two points end up being the same, return null.
    */
-  private void setFittedLine(double a, double b, IPoint s, double tMax, double tMin) {
-    //find line segment
+  @Override
+  protected BasicSymbol createSymbol() {
+    if (n == 0) {
+      return null;
+    }
 
-    //System.out.println("tMax:" + tMax + " tMin:" + tMin);
-    IPoint p1 = new Point((s.getX() + tMin * a), (s.getY() + tMin * b));
-    IPoint p2 = new Point((s.getX() + tMax * a), (s.getY() + tMax * b));
+    //find line segment
+    double x1 = avgX + tMin * a;
+    double y1 = avgY + tMin * b;
+    double x2 = avgX + tMax * a;
+    double y2 = avgY + tMax * b;
 
     //if two points are the same, cannot form a valid line, return null.
     //however, two points would never be the same given that there are more than 1 point
     //p1 == p2 when a = b= 0, sX = xY; a and b will never be zero at the same time.
     //since a = sine(theta) b = cos(theta).
-    if (p1.getX() == p2.getX() && p1.getY() == p2.getY()) {
-      this.goodness = 0;
-      return;
+    if (x1 == x2 && y1 == y2) {
+      return null;
     }
 
-    basicSymbol = new Line(p1.getX(), p1.getY(), p2.getX(), p2.getY());
-
+    return new Line(x1, y1, x2, y2);
   }
 
   /**
-   * Setting the goodness of fit after calculation.
+   * Find the max and min values along the line, a(x-xAvg) + b(y-yAvg), and across
+   * the line, b(x-xAvg) - a(y-yAvg), given a , b and the center, in a single pass.
    */
-  public void setGoodness(double a, double b, IPoint s, double tMax, double tMin) {
-    double tOMin = Double.MAX_VALUE;
-    double tOMax = Double.MIN_NORMAL;
-    for (IPoint p : points) {
-      double t = b * (p.getX() - s.getX()) - a * (p.getY() - s.getY());
-      tOMax = Math.max(tOMax, t);
-      tOMin = Math.min(tOMin, t);
-    }
-    this.goodness = 1 - Math.min(1, (tOMax - tOMin) / (tMax - tMin));
-  }
-
-  /**
-   * Find the max value given a , b and center s.
-   */
-  private double findTMax(double a, double b, IPoint s) {
-    double tMax = Double.MIN_NORMAL;
-    for (IPoint p : points) {
-      double t = a * (p.getX() - s.getX()) + b * (p.getY() - s.getY());
+  private void findExtents() {
+    tMax = Double.MIN_NORMAL;
+    tMin = Double.MAX_VALUE;
+    tOMax = Double.MIN_NORMAL;
+    tOMin = Double.MAX_VALUE;
+    for (int i = 0; i < n; i++) {
+      double dx = xs[i] - avgX;
+      double dy = ys[i] - avgY;
+      double t = a * dx + b * dy;
+      double tO = b * dx - a * dy;
       tMax = Math.max(tMax, t);
-    }
-    return tMax;
-  }
-
-  /**
-   * Find the min value given a , b and center s.
-   */
-  private double findTMin(double a, double b, IPoint s) {
-    double tMin = Double.MAX_VALUE;
-    for (IPoint p : points) {
-      double t = a * (p.getX() - s.getX()) + b * (p.getY() - s.getY());
       tMin = Math.min(tMin, t);
+      tOMax = Math.max(tOMax, tO);
+      tOMin = Math.min(tOMin, tO);
     }
-    return tMin;
   }
 
 }
@@ -1,10 +1,10 @@
 package recognizer.model;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import recognizer.symbol.BasicSymbol;
 import recognizer.symbol.IPoint;
+import recognizer.symbol.Line;
 import recognizer.symbol.Symbol;
 
 /**
@@ -15,67 +15,148 @@ import recognizer.symbol.Symbol;
  * getSymbols() method by calling the delegate methods.
  *
  * <p>It keeps track of the list of dragged points by mouse event, and recognize
- * them to basic symbols by fitting them to a Line or a Circle.
+ * them to basic symbols by fitting them to a Line or a Circle. The points are
+ * kept in a primitive stroke buffer, which also updates the sums used by the
+ * fitters as each point is added, so the fitters do not need to collect them
+ * again on mouse release. The fitters are kept in a registry and reused for
+ * every stroke.
  *
  * <p>If the list of points has a line fitting goodness above a threshold, then
- * it is recognized to be a line, other wise a circle. A fitted basic symbol
- * will be added to the list of symbols if they are not null.
+ * it is recognized to be a line, otherwise an arc, an ellipse or a circle. A fitted basic symbol
+ * will be added to the list of symbols if they are not null. Other fitters can
+ * be given to the model in a FitterRegistry, and a StrokeSimplifier can reduce
+ * the points of each stroke before they are fitted.
+ *
+ * <p>A stroke that is not confidently a single line is also given to a corner
+ * segmenter. If it is a polyline, such as a triangle drawn without lifting the mouse,
+ * its sides are added to the recognizer together as line segments, so the composite
+ * symbol is recognized on a single release.
+ *
+ * <p>While a stroke is being drawn, getPreview guesses its symbol from the running
+ * sums in constant time, see StrokePreview.
  */
 public class Model implements IModel {
 
-  private List<IPoint> points;
+  private StrokeBuffer stroke;
+  private StrokeBuffer simplified;
+  private FitterRegistry fitters;
+  private StrokeSimplifier simplifier;
+  private StrokePreview preview;
+  private CornerSegmenter segmenter;
   private IRecognizer recognizerDelegate;
   private static final double THRESHOLD = 0.7;
 
   /**
    * Constructor to initialize points buffer and recognizer delegate.
+   * A line fitter is tried first, then an arc, an ellipse and a circle fitter, all
+   * accepted at THRESHOLD.
    */
   public Model() {
-    points = new ArrayList<>();
-    recognizerDelegate = new Recognizer();
+    this(defaultFitters());
   }
 
-  @Override
-  public void recognize() {
-    LineFitter lf = new LineFitter(points);
-    CircleFitter cf = new CircleFitter(points);
+  /**
+   * Constructor to initialize points buffer and recognizer delegate, with the given
+   * fitters to recognize basic symbols.
+   *
+   * @param fitters the ordered fitters to try on each stroke
+   * @throws IllegalArgumentException when the fitters are null or empty
+   */
+  public Model(FitterRegistry fitters) {
+    this(fitters, null);
+  }
 
-    BasicSymbol resultLine = lf.getFittedBasicSymbol();
-    BasicSymbol resultCircle = cf.getFittedBasicSymbol();
+  /**
+   * Constructor to initialize points buffer and recognizer delegate, with the given
+   * fitters to recognize basic symbols and a stage to simplify strokes before fitting.
+   *
+   * @param fitters the ordered fitters to try on each stroke
+   * @param simplifier the simplification stage, or null to fit every point
+   * @throws IllegalArgumentException when the fitters are null or empty
+   */
+  public Model(FitterRegistry fitters, StrokeSimplifier simplifier) {
+    if (fitters == null || fitters.size() == 0) {
+      throw new IllegalArgumentException("No fitters.");
+    }
+    stroke = new StrokeBuffer();
+    simplified = new StrokeBuffer();
+    this.fitters = fitters;
+    this.simplifier = simplifier;
+    preview = new StrokePreview(THRESHOLD);
+    segmenter = new CornerSegmenter();
+    recognizerDelegate = new Recognizer();
+  }
 
-    //System.out.println("line goodness:" + lf.getGoodness());
-    //System.out.println("circle goodness:" + cf.getGoodness());
+  /**
+   * Create the default fitters: a line fitter, then an arc, an ellipse and a circle
+   * fitter, all accepted at THRESHOLD. They share the sums of the stroke, so trying
+   * the next one costs no more than its evaluation pass.
+   *
+   * @return a new registry of new fitters
+   */
+  static FitterRegistry defaultFitters() {
+    FitterRegistry registry = new FitterRegistry();
+    registry.register(new LineFitter(), THRESHOLD);
+    registry.register(new ArcFitter(), THRESHOLD);
+    registry.register(new EllipseFitter(), THRESHOLD);
+    registry.register(new CircleFitter(), THRESHOLD);
+    return registry;
+  }
 
-    //if a line is not null, and has a high fitness, then add a line
-    if (resultLine != null && lf.getGoodness() >= THRESHOLD) {
-      recognizerDelegate.addBasicSymbol(resultLine);
-    }
-    //compare fitness of a line and a circle, add the higher one
-    else if (resultLine != null && resultCircle != null) {
-      recognizerDelegate.addBasicSymbol(
-              lf.getGoodness() > cf.getGoodness() ? resultLine : resultCircle);
+  /**
+   * Create fitters that ignore stray points: a RANSAC line fitter, then a circle
+   * fitter, both accepted at THRESHOLD. Give them to the constructor to use them
+   * instead of the default fitters.
+   *
+   * @return a new registry of new fitters
+   */
+  public static FitterRegistry robustFitters() {
+    FitterRegistry registry = new FitterRegistry();
+    registry.register(new RansacLineFitter(), THRESHOLD);
+    registry.register(new CircleFitter(), THRESHOLD);
+    return registry;
+  }
+
+  @Override
+  public void recognize() {
+    //the sums are already collected by addPoint, the fitters share them.
+    //fitters are tried in order and stop at the first confident one.
+    StrokeBuffer toFit = simplifier == null ? stroke : simplifier.simplify(stroke, simplified);
+    Fitter selected = fitters.select(toFit);
+    //a confident line is a single line, anything else may be several lines.
+    List<BasicSymbol> lines = null;
+    if (selected == null || !(selected.getFittedBasicSymbol() instanceof Line)
+        || selected.getGoodness() < THRESHOLD) {
+      lines = segmenter.segment(toFit);
     }
-    //if there is no line, then add circle if present
-    else if (resultCircle != null) {
-      recognizerDelegate.addBasicSymbol(resultCircle);
+    if (lines != null && !lines.isEmpty()) {
+      recognizerDelegate.addBasicSymbols(lines);
+    } else if (selected != null) {
+      recognizerDelegate.addBasicSymbol(selected.getFittedBasicSymbol());
     }
 
-    points.clear();
+    stroke.clear();
   }
 
 
   @Override
   public List<IPoint> getPoints() {
-    List<IPoint> toReturn = new ArrayList<>();
-    for (IPoint p : points) {
-      toReturn.add(p.copy());
-    }
-    return toReturn;
+    return stroke.toPoints();
   }
 
   @Override
   public void addPoint(IPoint p) {
-    this.points.add(p);
+    if (p == null) {
+      return;
+    }
+    if (simplifier == null || simplifier.keep(stroke, p.getX(), p.getY())) {
+      stroke.add(p.getX(), p.getY());
+    }
+  }
+
+  @Override
+  public BasicSymbol getPreview() {
+    return preview.preview(stroke);
   }
 
   @Override
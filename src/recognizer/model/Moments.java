@@ -0,0 +1,501 @@
+package recognizer.model;
+
+import java.util.List;
+import recognizer.symbol.IPoint;
+
+/**
+ * Running sums of the coordinates of a set of points. The line, circle, arc and
+ * ellipse fitters are all solved from these sums, so they are collected once, in a
+ * single pass over the points, and shared by every fitter of the same points.
+ *
+ * <p>Sums kept: n and the sums of every product of x and y up to the fourth order,
+ * Sx, Sy, Sxx, Sxy, Syy, Sxxx, Sxxy, Sxyy, Syyy, Sxxxx, Sxxxy, Sxxyy, Sxyyy and Syyyy.
+ * The sums used by the circle fitter, Sx2y2, Sxx2y2 and Syx2y2, where x2y2 stands for
+ * (x * x + y * y), are read from them.
+ *
+ * <p>Points in arrays are added by a kernel that keeps two independent sets of
+ * partial sums, for even and odd points, and merges them at the end. Each sum is
+ * then no longer one long chain of dependent additions, so the processor can work on
+ * both halves at once. The partial sums are added in a different order than the
+ * scalar loop, so the results may differ in the last bits, by a relative 1e-12 at
+ * most for pixel coordinates. The scalar loop is used instead when the system
+ * property recognizer.moments.scalar is true, or after setUnrolledKernel(false).
+ *
+ * <p>Mouse input is in whole pixels. As long as every point has integer coordinates
+ * within EXACT_LIMIT, and there are fewer than MAX_EXACT_POINTS of them, the sums up
+ * to the third order are collected in long arithmetic, where they are exact and
+ * cannot overflow. They are only converted to double when read for the final solve,
+ * so the line and circle fits do not depend on the order the points were added in.
+ * From the first point that does not qualify, the rest of the sums are collected in
+ * double. The fourth order sums, only used by the ellipse fitter, would overflow a
+ * long and are always collected in double.
+ */
+public class Moments {
+
+  /**
+   * The largest absolute coordinate summed exactly. The largest term of the third
+   * order is then at most 2^42, so MAX_EXACT_POINTS of them fit in a long.
+   */
+  public static final double EXACT_LIMIT = 1 << 14;
+
+  /**
+   * The largest number of points summed exactly.
+   */
+  public static final int MAX_EXACT_POINTS = 1 << 19;
+
+  /**
+   * The number of points summed in double before their sums are added to the longs.
+   * With coordinates within EXACT_LIMIT, a term up to the third order is at most 2^42
+   * in magnitude, so the sums of a block stay within 2^51, below the 2^53 where double
+   * stops holding every integer. The longs then hold at most MAX_EXACT_POINTS terms,
+   * at most 2^61, which cannot overflow.
+   */
+  private static final int EXACT_BLOCK = 1 << 9;
+
+  private static final double ROUNDING = 1.5 * (1L << 52);
+
+  private static volatile boolean unrolledKernel =
+      !Boolean.getBoolean("recognizer.moments.scalar");
+
+  private int n;
+  private boolean exact;
+  private long lX;
+  private long lY;
+  private long lXX;
+  private long lXY;
+  private long lYY;
+  private long lXXX;
+  private long lXXY;
+  private long lXYY;
+  private long lYYY;
+  private double sX;
+  private double sY;
+  private double sXX;
+  private double sXY;
+  private double sYY;
+  private double sXXX;
+  private double sXXY;
+  private double sXYY;
+  private double sYYY;
+  private double sXXXX;
+  private double sXXXY;
+  private double sXXYY;
+  private double sXYYY;
+  private double sYYYY;
+
+  /**
+   * Constructs an empty set of sums.
+   */
+  public Moments() {
+    clear();
+  }
+
+  /**
+   * Constructs the sums of the given points in one pass.
+   *
+   * @param points List of points
+   */
+  public Moments(List<IPoint> points) {
+    this();
+    for (IPoint p : points) {
+      add(p.getX(), p.getY());
+    }
+  }
+
+  /**
+   * Constructs the sums of the first n points of the coordinate arrays in one pass.
+   *
+   * @param xs x coordinates of the points
+   * @param ys y coordinates of the points
+   * @param n number of points
+   */
+  public Moments(double[] xs, double[] ys, int n) {
+    this();
+    addAll(xs, ys, n);
+  }
+
+  /**
+   * Choose the kernel used to add points in arrays, for all sums.
+   *
+   * @param unrolled true for the kernel with two sets of partial sums, false for
+   *                 the plain scalar loop
+   */
+  public static void setUnrolledKernel(boolean unrolled) {
+    unrolledKernel = unrolled;
+  }
+
+  /**
+   * Adds the first n points of the coordinate arrays to the sums.
+   *
+   * @param xs x coordinates of the points
+   * @param ys y coordinates of the points
+   * @param n number of points
+   */
+  public void addAll(double[] xs, double[] ys, int n) {
+    int i = exact ? addAllExact(xs, ys, n) : 0;
+    if (i < n) {
+      exact = false;
+    }
+    if (!unrolledKernel) {
+      for (; i < n; i++) {
+        addDouble(xs[i], ys[i]);
+      }
+      return;
+    }
+    double sx0 = 0;
+    double sy0 = 0;
+    double sxx0 = 0;
+    double sxy0 = 0;
+    double syy0 = 0;
+    double sxxx0 = 0;
+    double sxxy0 = 0;
+    double sxyy0 = 0;
+    double syyy0 = 0;
+    double sxxxx0 = 0;
+    double sxxxy0 = 0;
+    double sxxyy0 = 0;
+    double sxyyy0 = 0;
+    double syyyy0 = 0;
+    double sx1 = 0;
+    double sy1 = 0;
+    double sxx1 = 0;
+    double sxy1 = 0;
+    double syy1 = 0;
+    double sxxx1 = 0;
+    double sxxy1 = 0;
+    double sxyy1 = 0;
+    double syyy1 = 0;
+    double sxxxx1 = 0;
+    double sxxxy1 = 0;
+    double sxxyy1 = 0;
+    double sxyyy1 = 0;
+    double syyyy1 = 0;
+    int first = i;
+    for (; i + 1 < n; i += 2) {
+      double x0 = xs[i];
+      double y0 = ys[i];
+      double xx0 = x0 * x0;
+      double xy0 = x0 * y0;
+      double yy0 = y0 * y0;
+      sx0 += x0;
+      sy0 += y0;
+      sxx0 += xx0;
+      sxy0 += xy0;
+      syy0 += yy0;
+      sxxx0 += x0 * xx0;
+      sxxy0 += xx0 * y0;
+      sxyy0 += x0 * yy0;
+      syyy0 += y0 * yy0;
+      sxxxx0 += xx0 * xx0;
+      sxxxy0 += xx0 * xy0;
+      sxxyy0 += xx0 * yy0;
+      sxyyy0 += xy0 * yy0;
+      syyyy0 += yy0 * yy0;
+
+      double x1 = xs[i + 1];
+      double y1 = ys[i + 1];
+      double xx1 = x1 * x1;
+      double xy1 = x1 * y1;
+      double yy1 = y1 * y1;
+      sx1 += x1;
+      sy1 += y1;
+      sxx1 += xx1;
+      sxy1 += xy1;
+      syy1 += yy1;
+      sxxx1 += x1 * xx1;
+      sxxy1 += xx1 * y1;
+      sxyy1 += x1 * yy1;
+      syyy1 += y1 * yy1;
+      sxxxx1 += xx1 * xx1;
+      sxxxy1 += xx1 * xy1;
+      sxxyy1 += xx1 * yy1;
+      sxyyy1 += xy1 * yy1;
+      syyyy1 += yy1 * yy1;
+    }
+    this.n += i - first;
+    sX += sx0 + sx1;
+    sY += sy0 + sy1;
+    sXX += sxx0 + sxx1;
+    sXY += sxy0 + sxy1;
+    sYY += syy0 + syy1;
+    sXXX += sxxx0 + sxxx1;
+    sXXY += sxxy0 + sxxy1;
+    sXYY += sxyy0 + sxyy1;
+    sYYY += syyy0 + syyy1;
+    sXXXX += sxxxx0 + sxxxx1;
+    sXXXY += sxxxy0 + sxxxy1;
+    sXXYY += sxxyy0 + sxxyy1;
+    sXYYY += sxyyy0 + sxyyy1;
+    sYYYY += syyyy0 + syyyy1;
+    for (; i < n; i++) {
+      addDouble(xs[i], ys[i]);
+    }
+  }
+
+  /**
+   * Adds points exactly, as long as they qualify for exact sums.
+   *
+   * <p>The points are taken in blocks of EXACT_BLOCK. Within a block, every product
+   * and partial sum up to the third order is an integer below 2^53, so it is computed
+   * exactly in double, in a single pass that also checks the points. Only when the
+   * whole block qualifies are its sums added to the long sums. Otherwise the block is
+   * added point by point up to the first point that does not qualify.
+   *
+   * @return the index of the first point not added
+   */
+  private int addAllExact(double[] xs, double[] ys, int n) {
+    int end = Math.min(n, MAX_EXACT_POINTS - this.n);
+    int i = 0;
+    while (i < end) {
+      int blockEnd = Math.min(end, i + EXACT_BLOCK);
+      double sx = 0;
+      double sy = 0;
+      double sxx = 0;
+      double sxy = 0;
+      double syy = 0;
+      double sxxx = 0;
+      double sxxy = 0;
+      double sxyy = 0;
+      double syyy = 0;
+      double sxxxx = 0;
+      double sxxxy = 0;
+      double sxxyy = 0;
+      double sxyyy = 0;
+      double syyyy = 0;
+      //sum of the distances of the coordinates to whole numbers, zero when they are all whole.
+      double fraction = 0;
+      boolean inRange = true;
+      for (int j = i; j < blockEnd; j++) {
+        double x = xs[j];
+        double y = ys[j];
+        fraction += Math.abs(x - round(x)) + Math.abs(y - round(y));
+        inRange &= Math.abs(x) <= EXACT_LIMIT & Math.abs(y) <= EXACT_LIMIT;
+        double xx = x * x;
+        double xy = x * y;
+        double yy = y * y;
+        sx += x;
+        sy += y;
+        sxx += xx;
+        sxy += xy;
+        syy += yy;
+        sxxx += x * xx;
+        sxxy += xx * y;
+        sxyy += x * yy;
+        syyy += y * yy;
+        sxxxx += xx * xx;
+        sxxxy += xx * xy;
+        sxxyy += xx * yy;
+        sxyyy += xy * yy;
+        syyyy += yy * yy;
+      }
+      if (fraction != 0 || !inRange) {
+        for (; i < blockEnd && isExact(xs[i]) && isExact(ys[i]); i++) {
+          addExact((long) xs[i], (long) ys[i]);
+        }
+        return i;
+      }
+      this.n += blockEnd - i;
+      lX += (long) sx;
+      lY += (long) sy;
+      lXX += (long) sxx;
+      lXY += (long) sxy;
+      lYY += (long) syy;
+      lXXX += (long) sxxx;
+      lXXY += (long) sxxy;
+      lXYY += (long) sxyy;
+      lYYY += (long) syyy;
+      sXXXX += sxxxx;
+      sXXXY += sxxxy;
+      sXXYY += sxxyy;
+      sXYYY += sxyyy;
+      sYYYY += syyyy;
+      i = blockEnd;
+    }
+    return i;
+  }
+
+  /**
+   * Rounds a coordinate to the nearest whole number, by letting the addition of
+   * 1.5 * 2^52 drop its fraction. Only meant for coordinates far below 2^51, larger
+   * ones are outside EXACT_LIMIT anyway.
+   */
+  private static double round(double c) {
+    return (c + ROUNDING) - ROUNDING;
+  }
+
+  private static boolean isExact(double c) {
+    return (long) c == c && c <= EXACT_LIMIT && c >= -EXACT_LIMIT;
+  }
+
+  /**
+   * Adds one point to the sums.
+   *
+   * @param x x coordinate of the point
+   * @param y y coordinate of the point
+   */
+  public void add(double x, double y) {
+    if (exact) {
+      if (n < MAX_EXACT_POINTS && isExact(x) && isExact(y)) {
+        addExact((long) x, (long) y);
+        return;
+      }
+      exact = false;
+    }
+    addDouble(x, y);
+  }
+
+  /**
+   * Returns whether all the points so far were summed exactly, in long arithmetic.
+   * Only the sums up to the third order are exact.
+   *
+   * @return true if the sums are exact
+   */
+  public boolean isExact() {
+    return exact;
+  }
+
+  private void addExact(long x, long y) {
+    long xx = x * x;
+    long xy = x * y;
+    long yy = y * y;
+    n++;
+    lX += x;
+    lY += y;
+    lXX += xx;
+    lXY += xy;
+    lYY += yy;
+    lXXX += x * xx;
+    lXXY += xx * y;
+    lXYY += x * yy;
+    lYYY += y * yy;
+    addFourthOrder(xx, xy, yy);
+  }
+
+  private void addDouble(double x, double y) {
+    double xx = x * x;
+    double xy = x * y;
+    double yy = y * y;
+    n++;
+    sX += x;
+    sY += y;
+    sXX += xx;
+    sXY += xy;
+    sYY += yy;
+    sXXX += x * xx;
+    sXXY += xx * y;
+    sXYY += x * yy;
+    sYYY += y * yy;
+    addFourthOrder(xx, xy, yy);
+  }
+
+  private void addFourthOrder(double xx, double xy, double yy) {
+    sXXXX += xx * xx;
+    sXXXY += xx * xy;
+    sXXYY += xx * yy;
+    sXYYY += xy * yy;
+    sYYYY += yy * yy;
+  }
+
+  /**
+   * Resets all the sums to zero.
+   */
+  public void clear() {
+    n = 0;
+    exact = true;
+    lX = 0;
+    lY = 0;
+    lXX = 0;
+    lXY = 0;
+    lYY = 0;
+    lXXX = 0;
+    lXXY = 0;
+    lXYY = 0;
+    lYYY = 0;
+    sX = 0;
+    sY = 0;
+    sXX = 0;
+    sXY = 0;
+    sYY = 0;
+    sXXX = 0;
+    sXXY = 0;
+    sXYY = 0;
+    sYYY = 0;
+    sXXXX = 0;
+    sXXXY = 0;
+    sXXYY = 0;
+    sXYYY = 0;
+    sYYYY = 0;
+  }
+
+  public int getN() {
+    return n;
+  }
+
+  public double getSx() {
+    return lX + sX;
+  }
+
+  public double getSy() {
+    return lY + sY;
+  }
+
+  public double getSxx() {
+    return lXX + sXX;
+  }
+
+  public double getSxy() {
+    return lXY + sXY;
+  }
+
+  public double getSyy() {
+    return lYY + sYY;
+  }
+
+  public double getSxxx() {
+    return lXXX + sXXX;
+  }
+
+  public double getSxxy() {
+    return lXXY + sXXY;
+  }
+
+  public double getSxyy() {
+    return lXYY + sXYY;
+  }
+
+  public double getSyyy() {
+    return lYYY + sYYY;
+  }
+
+  public double getSxxxx() {
+    return sXXXX;
+  }
+
+  public double getSxxxy() {
+    return sXXXY;
+  }
+
+  public double getSxxyy() {
+    return sXXYY;
+  }
+
+  public double getSxyyy() {
+    return sXYYY;
+  }
+
+  public double getSyyyy() {
+    return sYYYY;
+  }
+
+  public double getSx2y2() {
+    return getSxx() + getSyy();
+  }
+
+  public double getSxx2y2() {
+    return getSxxx() + getSxyy();
+  }
+
+  public double getSyx2y2() {
+    return getSxxy() + getSyyy();
+  }
+}
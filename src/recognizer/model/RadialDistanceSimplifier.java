@@ -0,0 +1,41 @@
+package recognizer.model;
+
+/**
+ * Drops every new point that is closer than a tolerance to the last kept point.
+ * This removes the duplicate and crowded points of a slow drag as they arrive, in
+ * constant time per point, so they never reach the stroke buffer or its sums. The
+ * complete stroke is fitted as it is.
+ */
+public class RadialDistanceSimplifier implements StrokeSimplifier {
+
+  private final double toleranceSquared;
+
+  /**
+   * Constructs a simplifier with the given tolerance.
+   *
+   * @param tolerance the distance below which a point is dropped
+   * @throws IllegalArgumentException when the tolerance is negative
+   */
+  public RadialDistanceSimplifier(double tolerance) {
+    if (tolerance < 0) {
+      throw new IllegalArgumentException("Tolerance cannot be negative.");
+    }
+    this.toleranceSquared = tolerance * tolerance;
+  }
+
+  @Override
+  public boolean keep(StrokeBuffer stroke, double x, double y) {
+    int last = stroke.size() - 1;
+    if (last < 0) {
+      return true;
+    }
+    double dx = x - stroke.getX(last);
+    double dy = y - stroke.getY(last);
+    return dx * dx + dy * dy >= toleranceSquared;
+  }
+
+  @Override
+  public StrokeBuffer simplify(StrokeBuffer stroke, StrokeBuffer out) {
+    return stroke;
+  }
+}
@@ -0,0 +1,237 @@
+package recognizer.model;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import recognizer.symbol.BasicSymbol;
+import recognizer.symbol.IPoint;
+
+/**
+ * Fits a line that ignores stray points, with random sample consensus (RANSAC).
+ * The least squares line fitter is pulled towards every point, so a single stray
+ * sample at the end of a stroke can drop its goodness below the threshold.
+ *
+ * <p>Each hypothesis is the line through two points picked at random. Its score is
+ * the number of inliers, the points within the tolerance of the line. Hypotheses are
+ * drawn in batches of BATCH, which are scored in parallel when the stroke has at
+ * least PARALLEL_POINTS points and the fitter was built to be parallel. The search
+ * stops after the first batch that reaches one of the following:
+ * the maximum number of hypotheses; the time budget; or enough hypotheses to have
+ * drawn two inliers of the best line with a probability of CONFIDENCE.
+ *
+ * <p>The line is then fitted by least squares on the inliers of the best hypothesis
+ * only, and the goodness is the goodness of that fit times the fraction of inliers.
+ *
+ * <p>The random points are drawn from a generator seeded the same way for every fit,
+ * and a tie between hypotheses goes to the one drawn first, so the result does not
+ * depend on the number of threads. It can only depend on the time budget, when the
+ * budget runs out before the other limits are reached. All the work is done when the
+ * goodness or the symbol is first asked for.
+ */
+public class RansacLineFitter extends FitterAbstract {
+
+  private static final int BATCH = 32;
+  private static final int PARALLEL_POINTS = 2000;
+  private static final double CONFIDENCE = 0.99;
+  private static final long SEED = 17;
+
+  private final double tolerance;
+  private final int maxIterations;
+  private final long budgetNanos;
+  private final boolean parallel;
+  private final LineFitter inlierFitter;
+  private boolean found;
+  private int[] firsts;
+  private int[] seconds;
+  private int[] scores;
+  private double[] inliersX;
+  private double[] inliersY;
+
+  /**
+   * Constructs a reusable fitter with a tolerance of 2 pixels, at most 500 hypotheses
+   * and a budget of 5 milliseconds per stroke, scoring in parallel.
+   */
+  public RansacLineFitter() {
+    this(2, 500, 5000000L, true);
+  }
+
+  /**
+   * Constructs a reusable fitter.
+   *
+   * @param tolerance the largest distance from the line of an inlier
+   * @param maxIterations the largest number of hypotheses tried per stroke
+   * @param budgetNanos the time after which no more hypotheses are drawn, in nanoseconds
+   * @param parallel whether large strokes are scored on several threads
+   * @throws IllegalArgumentException when the tolerance is negative or the iterations or
+   *         the budget are not positive
+   */
+  public RansacLineFitter(double tolerance, int maxIterations, long budgetNanos,
+                          boolean parallel) {
+    super();
+    if (tolerance < 0 || maxIterations <= 0 || budgetNanos <= 0) {
+      throw new IllegalArgumentException("Invalid tolerance, iterations or budget.");
+    }
+    this.tolerance = tolerance;
+    this.maxIterations = maxIterations;
+    this.budgetNanos = budgetNanos;
+    this.parallel = parallel;
+    this.inlierFitter = new LineFitter();
+    this.firsts = new int[BATCH];
+    this.seconds = new int[BATCH];
+    this.scores = new int[BATCH];
+    this.inliersX = new double[0];
+    this.inliersY = new double[0];
+  }
+
+  /**
+   * Constructs a fitter with the default settings and fits the given points.
+   *
+   * @param points List of points
+   */
+  public RansacLineFitter(List<IPoint> points) {
+    this();
+    fit(pointsX(points), pointsY(points), points.size());
+  }
+
+  /**
+   * The hypotheses need a pass over the points each, so there is nothing to solve
+   * from the sums. The search is done in evaluate.
+   */
+  @Override
+  protected void solve() {
+  }
+
+  /**
+   * This method searches for the best hypothesis and fits the line on its inliers.
+   */
+  @Override
+  protected void evaluate() {
+    goodness = 0;
+    found = false;
+    if (n < 2) {
+      return;
+    }
+    long start = System.nanoTime();
+    Random random = new Random(SEED);
+    int bestFirst = -1;
+    int bestSecond = -1;
+    int bestScore = 0;
+    int iterations = 0;
+    while (iterations < Math.min(maxIterations, requiredIterations(bestScore))
+        && System.nanoTime() - start < budgetNanos) {
+      int batch = Math.min(BATCH, maxIterations - iterations);
+      for (int h = 0; h < batch; h++) {
+        firsts[h] = random.nextInt(n);
+        seconds[h] = random.nextInt(n);
+      }
+      if (parallel && n >= PARALLEL_POINTS) {
+        IntStream.range(0, batch).parallel().forEach(h -> scores[h] = score(h));
+      } else {
+        for (int h = 0; h < batch; h++) {
+          scores[h] = score(h);
+        }
+      }
+      for (int h = 0; h < batch; h++) {
+        if (scores[h] > bestScore) {
+          bestScore = scores[h];
+          bestFirst = firsts[h];
+          bestSecond = seconds[h];
+        }
+      }
+      iterations += batch;
+    }
+    if (bestFirst == -1) {
+      return;
+    }
+    int count = collectInliers(bestFirst, bestSecond);
+    inlierFitter.fit(inliersX, inliersY, count);
+    found = true;
+    goodness = inlierFitter.getGoodness() * count / n;
+  }
+
+  @Override
+  protected BasicSymbol createSymbol() {
+    return found ? inlierFitter.getFittedBasicSymbol() : null;
+  }
+
+  /**
+   * The number of hypotheses after which two inliers of the best line so far have been
+   * drawn together with a probability of CONFIDENCE.
+   */
+  private int requiredIterations(int bestScore) {
+    double w = (double) bestScore / n;
+    if (w * w >= 1) {
+      return 0;
+    }
+    if (w == 0) {
+      return Integer.MAX_VALUE;
+    }
+    return (int) Math.min(Integer.MAX_VALUE,
+        Math.ceil(Math.log(1 - CONFIDENCE) / Math.log(1 - w * w)));
+  }
+
+  /**
+   * The number of inliers of hypothesis h, 0 when its two points are the same.
+   */
+  private int score(int h) {
+    double x1 = xs[firsts[h]];
+    double y1 = ys[firsts[h]];
+    double dx = xs[seconds[h]] - x1;
+    double dy = ys[seconds[h]] - y1;
+    double length = Math.sqrt(dx * dx + dy * dy);
+    if (length == 0) {
+      return 0;
+    }
+    //the cross product is the distance from the line times the length.
+    double limit = tolerance * length;
+    int count = 0;
+    for (int i = 0; i < n; i++) {
+      if (Math.abs(dx * (ys[i] - y1) - dy * (xs[i] - x1)) <= limit) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Copy the inliers of the line through two points into the inlier arrays.
+   *
+   * @return the number of inliers
+   */
+  private int collectInliers(int first, int second) {
+    if (inliersX.length < n) {
+      inliersX = new double[n];
+      inliersY = new double[n];
+    }
+    double x1 = xs[first];
+    double y1 = ys[first];
+    double dx = xs[second] - x1;
+    double dy = ys[second] - y1;
+    double limit = tolerance * Math.sqrt(dx * dx + dy * dy);
+    int count = 0;
+    for (int i = 0; i < n; i++) {
+      if (Math.abs(dx * (ys[i] - y1) - dy * (xs[i] - x1)) <= limit) {
+        inliersX[count] = xs[i];
+        inliersY[count] = ys[i];
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private static double[] pointsX(List<IPoint> points) {
+    double[] toReturn = new double[points.size()];
+    for (int i = 0; i < toReturn.length; i++) {
+      toReturn[i] = points.get(i).getX();
+    }
+    return toReturn;
+  }
+
+  private static double[] pointsY(List<IPoint> points) {
+    double[] toReturn = new double[points.size()];
+    for (int i = 0; i < toReturn.length; i++) {
+      toReturn[i] = points.get(i).getY();
+    }
+    return toReturn;
+  }
+}
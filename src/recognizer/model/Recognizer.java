@@ -1,9 +1,11 @@
 package recognizer.model;
 
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import recognizer.symbol.BasicSymbol;
 import recognizer.symbol.Candy;
 import recognizer.symbol.Circle;
@@ -27,13 +29,94 @@ import recognizer.symbol.Triangle;
  * vertices, no two line segments have the same orientation.
  *
  * <p>Equilateral triangle: A triangle but with all sides equal.
+ *
+ * <p>The composite symbols are described by the rules of a rule registry. When a
+ * symbol is added, the rules that take a symbol of its type become due, with the
+ * symbol as their trigger. The due rule first in the registry is tried next, once
+ * for each of its triggers still in the model, until no rule is due. A composite
+ * symbol formed makes the rules that take it due, wherever they are in the registry,
+ * with the composite as their trigger. The recognition thus cascades until nothing
+ * changes, or until the bound on the number of rules tried after one add is reached.
+ *
+ * <p>A rule tried with a trigger takes its other components from the symbols near
+ * the trigger, found in a spatial grid of the symbol store without looking at the
+ * rest, and from the last few symbols of each type. Symbols drawn far apart in time
+ * can thus form a composite symbol, whatever was drawn elsewhere in between. The
+ * candidates are probed first, and a composite symbol is only constructed when they
+ * can form it.
  */
 public class Recognizer implements IRecognizer {
 
-  private List<Symbol> symbols;
+  private static final int MAX_EVALUATIONS = 256;
+  private static final int MAX_NEAR = 64;
+  private static final int MAX_CANDIDATES = 6;
+  private static final int MAX_REJECTED = 4096;
 
+  private final RuleRegistry rules;
+  private final int maxEvaluations;
+  private final CascadeStats stats;
+  private final RejectionCache rejected;
+  private SymbolStore symbols;
+
+  /**
+   * Constructs a recognizer with the default rules.
+   */
   public Recognizer() {
-    symbols = new ArrayList<>();
+    this(defaultRules());
+  }
+
+  /**
+   * Constructs a recognizer with the given rules, trying at most 256 rules after
+   * each add. The registry is copied, so rules registered to it later are not used.
+   *
+   * @param rules the composite rules, in the order they are tried
+   * @throws IllegalArgumentException when the rules are null
+   */
+  public Recognizer(RuleRegistry rules) {
+    this(rules, MAX_EVALUATIONS);
+  }
+
+  /**
+   * Constructs a recognizer with the given rules. The registry is copied, so rules
+   * registered to it later are not used.
+   *
+   * @param rules the composite rules, in the order they are tried
+   * @param maxEvaluations the largest number of rules tried after one add
+   * @throws IllegalArgumentException when the rules are null or the bound is not
+   *         positive
+   */
+  public Recognizer(RuleRegistry rules, int maxEvaluations) {
+    if (rules == null || maxEvaluations <= 0) {
+      throw new IllegalArgumentException("Null rules or invalid bound.");
+    }
+    this.rules = new RuleRegistry(rules);
+    this.maxEvaluations = maxEvaluations;
+    this.stats = new CascadeStats(this.rules.size());
+    this.rejected = new RejectionCache(MAX_REJECTED);
+    symbols = new SymbolStore(this.rules.componentTypes());
+  }
+
+  /**
+   * Get the default rules: snowman, equilateral triangle, rectangle, triangle,
+   * deathly hallows and candy, in this order.
+   *
+   * @return a new registry of the default rules
+   */
+  public static RuleRegistry defaultRules() {
+    RuleRegistry rules = new RuleRegistry();
+    rules.register(new CompositeRule("Snowman", Snowman::probe, Snowman::new,
+        Circle.class, Circle.class, Circle.class));
+    rules.register(new CompositeRule("EquilateralTriangle", EquilateralTriangle::probe,
+        EquilateralTriangle::new, Line.class, Line.class, Line.class));
+    rules.register(new CompositeRule("Rectangle", Rectangle::probe, Rectangle::new,
+        Line.class, Line.class, Line.class, Line.class));
+    rules.register(new CompositeRule("Triangle", Triangle::probe, Triangle::new,
+        Line.class, Line.class, Line.class));
+    rules.register(new CompositeRule("DeathlyHallows", DeathlyHallows::probe,
+        DeathlyHallows::new, Triangle.class, Circle.class, Line.class));
+    rules.register(new CompositeRule("Candy", Candy::probe, Candy::new,
+        Triangle.class, Triangle.class, Circle.class));
+    return rules;
   }
 
   @Override
@@ -47,28 +130,132 @@ public class Recognizer implements IRecognizer {
       return;
     }
     symbols.add(symbol);
-    // If a circle is added, try to canForm a snowman.
-    if (symbol instanceof Circle) {
-      recognizeSnowman();
+    Cascade cascade = new Cascade();
+    cascade.markDue(symbol, 0);
+    cascade.run();
+  }
+
+  @Override
+  public void addBasicSymbols(List<BasicSymbol> toAdd) {
+    if (toAdd == null || toAdd.contains(null)) {
+      throw new IllegalArgumentException("Null input.");
+    }
+    Cascade cascade = new Cascade();
+    boolean added = false;
+    for (BasicSymbol symbol : toAdd) {
+      if (exist(symbol)) {
+        continue;
+      }
+      symbols.add(symbol);
+      cascade.markDue(symbol, 0);
+      added = true;
+    }
+    if (added) {
+      cascade.run();
+    }
+  }
+
+  /**
+   * Get the counters of the recognition done so far.
+   *
+   * @return a copy of the counters
+   */
+  public CascadeStats getStats() {
+    return new CascadeStats(stats);
+  }
+
+  /**
+   * The recognition that follows one add. Each due rule has the symbols that made it
+   * due, its triggers, and is tried with each of them that is still in the model.
+   */
+  private final class Cascade {
+
+    private final BitSet due;
+    private final List<List<Symbol>> triggers;
+    private final Map<Symbol, Integer> depths;
+
+    private Cascade() {
+      due = new BitSet(rules.size());
+      triggers = new ArrayList<>();
+      for (int i = 0; i < rules.size(); i++) {
+        triggers.add(new ArrayList<>());
+      }
+      depths = new IdentityHashMap<>();
+    }
+
+    /**
+     * Mark the rules that take the symbol as due, with the symbol as a trigger.
+     *
+     * @param depth the depth of the symbol, 0 for an added one
+     */
+    private void markDue(Symbol symbol, int depth) {
+      depths.put(symbol, depth);
+      for (int i : rules.rulesFor(symbol.getClass())) {
+        due.set(i);
+        triggers.get(i).add(symbol);
+      }
+    }
+
+    /**
+     * Record a composite symbol formed by a rule, one deeper than its deepest
+     * component, and mark the rules that take it as due. A component that was not
+     * marked in this cascade counts as depth 0.
+     */
+    private void formed(int index, Symbol composite, List<Symbol> component) {
+      int depth = 0;
+      for (Symbol s : component) {
+        depth = Math.max(depth, depths.getOrDefault(s, 0));
+      }
+      depth++;
+      stats.formed(index, depth);
+      markDue(composite, depth);
+    }
+
+    /**
+     * Whether a symbol other than the trigger was marked in this cascade. A
+     * combination with such a symbol may be tried again with it as the trigger;
+     * one without can never be tried again, since every trigger is new.
+     */
+    private boolean hasOtherTrigger(List<Symbol> component, Symbol trigger) {
+      for (Symbol s : component) {
+        if (s != trigger && depths.containsKey(s)) {
+          return true;
+        }
+      }
+      return false;
     }
-    // If a line segment is added try to canForm an equilateral triangle
-    // first. If failed, then a normal triangle.
-    else if (symbol instanceof Line) {
-      recognizeEquilateralTriangle();
-      recognizeRectangle();
-      recognizeTriangle();
+
+    /**
+     * Try the due rule first in the registry until no rule is due or the bound is
+     * reached. A composite symbol formed makes the rules that take it due.
+     */
+    private void run() {
+      long start = System.nanoTime();
+      int evaluations = 0;
+      for (int i = due.nextSetBit(0); i >= 0; i = due.nextSetBit(0)) {
+        due.clear(i);
+        List<Symbol> pending = new ArrayList<>(triggers.get(i));
+        triggers.get(i).clear();
+        for (Symbol trigger : pending) {
+          if (!symbols.contains(trigger)) {
+            continue;
+          }
+          if (evaluations == maxEvaluations) {
+            stats.finished(System.nanoTime() - start, true);
+            return;
+          }
+          evaluations++;
+          stats.evaluated(i);
+          recognize(i, trigger, this);
+        }
+      }
+      stats.finished(System.nanoTime() - start, false);
     }
-    recognizeDeathlyHallows();
-    recognizeCandy();
   }
 
   @Override
   public List<Symbol> getSymbols() {
-    List<Symbol> toReturn = new ArrayList<>();
-    for (Symbol s : symbols) {
-      toReturn.add(s.copy());
-    }
-    return toReturn;
+    return symbols.snapshot();
   }
 
   @Override
@@ -90,285 +277,229 @@ public class Recognizer implements IRecognizer {
   }
 
   /**
-   * To check if a symbol with same reference already exist in the list.
+   * To check if a symbol with same reference already exist in the model.
    *
    * @param symbol a symbol to be checked
    * @return true if it already exist, false otherwise.
    */
   private boolean exist(Symbol symbol) {
-    for (Symbol s : symbols) {
-      if (s == symbol) {
-        return true;
-      }
-    }
-    return false;
+    return symbols.contains(symbol);
   }
 
   /**
-   * Helper method to find the last 3 line segments from the symbol list and
-   * try to canForm them as an EquilateralTriangle. If an
-   * EquilateralTriangle is found, those 3 line segments will be removed and
-   * the EquilateralTriangle will be added to the end of the list.
+   * Try to form the composite symbol of a rule with the trigger and other symbols
+   * near it. If it is formed, the components will be removed and the composite
+   * symbol will be added to the end of the list.
    *
-   * @return true if success to canForm, false otherwise.
+   * <p>The candidates of each type are the symbols of that type within as many
+   * steps of touching symbols from the trigger as the rule has other components,
+   * together with the last symbols of that type, at most MAX_CANDIDATES of them, the
+   * most recent first. The combinations are tried most recent first, so the first
+   * one is made of the last symbols of each type when they are near the trigger.
+   *
+   * <p>The combinations the rule rejects that may be tried again in the cascade are
+   * kept, and not probed again while their components are in the model.
+   *
+   * @param index the position of the rule to try
+   * @param trigger a symbol the rule takes, which must be one of the components
+   * @param cascade the cascade the rule is tried in
+   * @return the composite symbol formed, or null if it was not formed
    */
-  private boolean recognizeEquilateralTriangle() {
-    int size = symbols.size();
-    if (size < 3) {
-      return false;
-    }
-    // An array to remember the indexes of the last 3 line segments.
-    int[] indexes = new int[3];
-    indexes[0] = -1;
-    indexes[1] = -1;
-    indexes[2] = -1;
-
-    for (int i = size - 1, j = 0; i >= 0 && j < 3; i--) {
-      if (symbols.get(i) instanceof Line) {
-        indexes[j] = i;
-        j++;
+  private Symbol recognize(int index, Symbol trigger, Cascade cascade) {
+    CompositeRule rule = rules.get(index);
+    List<Class<? extends Symbol>> signature = rule.getSignature();
+    List<Symbol> near = symbols.near(trigger, signature.size() - 1, MAX_NEAR);
+    List<Class<? extends Symbol>> types = new ArrayList<>();
+    for (Class<? extends Symbol> type : signature) {
+      if (!types.contains(type)) {
+        types.add(type);
       }
     }
-    // If we cannot find 3 line segments, return false.
-    if (indexes[2] == -1) {
-      return false;
-    }
-    List<Symbol> component = new ArrayList<>();
-    component.add(symbols.get(indexes[2]));
-    component.add(symbols.get(indexes[1]));
-    component.add(symbols.get(indexes[0]));
-    try {
-      // Try to form a EquilateralTriangle.
-      EquilateralTriangle et = new EquilateralTriangle(component);
-      symbols.remove(indexes[0]);
-      symbols.remove(indexes[1]);
-      symbols.remove(indexes[2]);
-      symbols.add(et);
-      return true;
-    } catch (IllegalArgumentException e) {
-      // If fail to form a EquilateralTriangle, return false.
-      return false;
-    }
+    int triggerType = -1;
+    int[] needed = new int[types.size()];
+    List<List<Symbol>> pools = new ArrayList<>();
+    for (int t = 0; t < types.size(); t++) {
+      Class<? extends Symbol> type = types.get(t);
+      needed[t] = Collections.frequency(signature, type);
+      if (triggerType == -1 && type.isInstance(trigger)) {
+        triggerType = t;
+        needed[t]--;
+      }
+      List<Symbol> pool = pool(type, needed[t] + 1, near, trigger);
+      // If we cannot find enough symbols, return null.
+      if (pool.size() < needed[t]) {
+        return null;
+      }
+      pools.add(pool);
+    }
+    Search search = new Search(index, trigger, triggerType, types, needed, pools,
+        cascade);
+    List<Symbol> component = search.first(0);
+    if (component == null) {
+      return null;
+    }
+    Symbol composite = rule.form(component);
+    replace(component, composite);
+    cascade.formed(index, composite, component);
+    return composite;
   }
 
   /**
-   * Helper method to find the last 3 line segments from the symbol list and
-   * try to canForm them as an Triangle. If an Triangle is found, those 3
-   * line segments will be removed and the Triangle will be added to the end of
-   * the list.
-   *
-   * @return true if success to canForm, false otherwise.
+   * The candidates of a type other than the trigger: the symbols of the type near it
+   * and its last symbols, the most recent first, at most MAX_CANDIDATES of them.
    */
-  private boolean recognizeTriangle() {
-    int size = symbols.size();
-    if (size < 3) {
-      return false;
-    }
-    // An array to remember the indexes of the last 3 line segments.
-    int[] indexes = new int[3];
-    indexes[0] = -1;
-    indexes[1] = -1;
-    indexes[2] = -1;
-    for (int i = size - 1, j = 0; i >= 0 && j < 3; i--) {
-      if (symbols.get(i) instanceof Line) {
-        indexes[j] = i;
-        j++;
+  private List<Symbol> pool(Class<? extends Symbol> type, int last, List<Symbol> near,
+                            Symbol trigger) {
+    List<Symbol> toReturn = new ArrayList<>();
+    for (Symbol s : symbols.last(type, last)) {
+      if (s != trigger) {
+        toReturn.add(s);
       }
     }
-    // If we cannot find 3 line segments, return false.
-    if (indexes[2] == -1) {
-      return false;
-    }
-    List<Symbol> component = new ArrayList<>();
-    component.add(symbols.get(indexes[2]));
-    component.add(symbols.get(indexes[1]));
-    component.add(symbols.get(indexes[0]));
-    try {
-      // Try to form a Triangle.
-      Triangle triangle = new Triangle(component);
-      symbols.remove(indexes[0]);
-      symbols.remove(indexes[1]);
-      symbols.remove(indexes[2]);
-      symbols.add(triangle);
-      return true;
-    } catch (IllegalArgumentException e) {
-      // If fail to form a Triangle, return false.
-      return false;
+    for (Symbol s : near) {
+      if (type.isInstance(s) && !toReturn.contains(s)) {
+        toReturn.add(s);
+      }
     }
+    sortByNumber(toReturn);
+    Collections.reverse(toReturn);
+    return toReturn.size() > MAX_CANDIDATES ? toReturn.subList(0, MAX_CANDIDATES) : toReturn;
   }
 
   /**
-   * Helper method to find the last 3 circles from the symbol list and
-   * try to canForm them as an Snowman. If Snowman is found, those 3 line
-   * segments will be removed and the Snowman will be added to the end of the
-   * list.
-   *
-   * @return true if success to canForm, false otherwise.
+   * Sort symbols in the store the oldest first. The lists are short, so an insertion
+   * sort over their numbers, each looked up once, is enough.
    */
-  private boolean recognizeSnowman() {
-    int size = symbols.size();
-    if (size < 3) {
-      return false;
-    }
-    // An array to remember the indexes of the last 3 circles.
-    int[] indexes = new int[3];
-    indexes[0] = -1;
-    indexes[1] = -1;
-    indexes[2] = -1;
-    for (int i = size - 1, j = 0; i >= 0 && j < 3; i--) {
-      if (symbols.get(i) instanceof Circle) {
-        indexes[j] = i;
-        j++;
+  private void sortByNumber(List<Symbol> list) {
+    long[] numbers = new long[list.size()];
+    for (int i = 0; i < numbers.length; i++) {
+      numbers[i] = symbols.number(list.get(i));
+    }
+    for (int i = 1; i < numbers.length; i++) {
+      long number = numbers[i];
+      Symbol symbol = list.get(i);
+      int j = i - 1;
+      for (; j >= 0 && numbers[j] > number; j--) {
+        numbers[j + 1] = numbers[j];
+        list.set(j + 1, list.get(j));
       }
-    }
-    // If we cannot find 3 circles, return false.
-    if (indexes[2] == -1) {
-      return false;
-    }
-    List<Symbol> component = new ArrayList<>();
-    component.add(symbols.get(indexes[2]));
-    component.add(symbols.get(indexes[1]));
-    component.add(symbols.get(indexes[0]));
-    try {
-      // Try to form a snowman
-      Snowman snowman = new Snowman(component);
-      symbols.remove(indexes[0]);
-      symbols.remove(indexes[1]);
-      symbols.remove(indexes[2]);
-      symbols.add(snowman);
-      return true;
-    } catch (IllegalArgumentException e) {
-      // If fail to form a Snowman, return false.
-      return false;
+      numbers[j + 1] = number;
+      list.set(j + 1, symbol);
     }
   }
 
-  private boolean recognizeDeathlyHallows() {
-    int size = symbols.size();
-    if (size < 3) {
-      return false;
-    }
-    int[] indexes = {-1, -1, -1};
-    int count = 0;
-    for (int i = size - 1; i >= 0; i--) {
-      if (symbols.get(i) instanceof Triangle
-              && indexes[0] == -1) {
-        indexes[0] = i;
-        count++;
+  /**
+   * A search through the combinations of candidates for one that the rule can form,
+   * choosing the needed number of candidates of each type in turn.
+   */
+  private final class Search {
+
+    private final int index;
+    private final CompositeRule rule;
+    private final Symbol trigger;
+    private final Cascade cascade;
+    private final int triggerType;
+    private final List<Class<? extends Symbol>> types;
+    private final int[] needed;
+    private final List<List<Symbol>> pools;
+    private final List<List<Symbol>> chosen;
+
+    private Search(int index, Symbol trigger, int triggerType,
+                   List<Class<? extends Symbol>> types, int[] needed,
+                   List<List<Symbol>> pools, Cascade cascade) {
+      this.index = index;
+      this.cascade = cascade;
+      this.rule = rules.get(index);
+      this.trigger = trigger;
+      this.triggerType = triggerType;
+      this.types = types;
+      this.needed = needed;
+      this.pools = pools;
+      this.chosen = new ArrayList<>();
+      for (int t = 0; t < types.size(); t++) {
+        chosen.add(new ArrayList<>());
       }
-      if (symbols.get(i) instanceof Circle
-              && indexes[1] == -1) {
-        indexes[1] = i;
-        count++;
+    }
+
+    /**
+     * The first combination the rule can form, given the candidates chosen for the
+     * types before t.
+     *
+     * @return the components in the order of the signature, or null if there is none
+     */
+    private List<Symbol> first(int t) {
+      if (t == needed.length) {
+        List<Symbol> component = components();
+        long[] numbers = new long[component.size()];
+        for (int i = 0; i < numbers.length; i++) {
+          numbers[i] = symbols.number(component.get(i));
+        }
+        if (rejected.isRejected(index, numbers)) {
+          stats.skipped();
+          return null;
+        }
+        stats.probed();
+        if (rule.probe(component)) {
+          return component;
+        }
+        if (cascade.hasOtherTrigger(component, trigger)) {
+          rejected.reject(index, numbers);
+        }
+        return null;
       }
-      if (symbols.get(i) instanceof Line
-              && indexes[2] == -1) {
-        indexes[2] = i;
-        count++;
+      return first(t, 0);
+    }
+
+    private List<Symbol> first(int t, int from) {
+      List<Symbol> pool = pools.get(t);
+      List<Symbol> choice = chosen.get(t);
+      if (choice.size() == needed[t]) {
+        return first(t + 1);
       }
-      if (count >= 3) {
-        break;
+      for (int i = from; i <= pool.size() - (needed[t] - choice.size()); i++) {
+        choice.add(pool.get(i));
+        List<Symbol> found = first(t, i + 1);
+        choice.remove(choice.size() - 1);
+        if (found != null) {
+          return found;
+        }
       }
+      return null;
     }
-    if (count != 3) {
-      return false;
-    }
-    List<Symbol> component = new ArrayList<>();
-    component.add(symbols.get(indexes[0]));
-    component.add(symbols.get(indexes[1]));
-    component.add(symbols.get(indexes[2]));
-    try {
-      DeathlyHallows deathlyHallows = new DeathlyHallows(component);
-      Arrays.sort(indexes);
-      symbols.remove(indexes[2]);
-      symbols.remove(indexes[1]);
-      symbols.remove(indexes[0]);
-      symbols.add(deathlyHallows);
-      return true;
-    } catch (IllegalArgumentException e) {
-      return false;
-    }
-  }
 
-  private boolean recognizeCandy() {
-    int size = symbols.size();
-    if (size < 3) {
-      return false;
-    }
-    int[] indexes = {-1, -1, -1};
-    int count = 0;
-    for (int i = size - 1, j = 0; i >= 0 && count < 3; i--) {
-      if (symbols.get(i) instanceof Triangle
-              && indexes[j] == -1) {
-        indexes[j] = i;
-        j++;
-        count++;
+    /**
+     * The chosen candidates and the trigger in the order of the signature, those of
+     * the same type the oldest first.
+     */
+    private List<Symbol> components() {
+      List<List<Symbol>> byType = new ArrayList<>();
+      for (int t = 0; t < needed.length; t++) {
+        List<Symbol> ofType = new ArrayList<>(chosen.get(t));
+        if (t == triggerType) {
+          ofType.add(trigger);
+        }
+        sortByNumber(ofType);
+        byType.add(ofType);
       }
-      else if (symbols.get(i) instanceof Circle
-              && indexes[2] == -1) {
-        indexes[2] = i;
-        count++;
+      List<Symbol> toReturn = new ArrayList<>();
+      int[] next = new int[needed.length];
+      for (Class<? extends Symbol> type : rule.getSignature()) {
+        int t = types.indexOf(type);
+        toReturn.add(byType.get(t).get(next[t]++));
       }
-    }
-    if (count != 3) {
-      return false;
-    }
-    List<Symbol> component = new ArrayList<>();
-    component.add(symbols.get(indexes[0]));
-    component.add(symbols.get(indexes[1]));
-    component.add(symbols.get(indexes[2]));
-    try {
-      Candy candy = new Candy(component);
-      Arrays.sort(indexes);
-      symbols.remove(indexes[2]);
-      symbols.remove(indexes[1]);
-      symbols.remove(indexes[0]);
-      symbols.add(candy);
-      return true;
-    } catch (IllegalArgumentException e) {
-      return false;
+      return toReturn;
     }
   }
 
-  private boolean recognizeRectangle() {
-    int size = symbols.size();
-    if (size < 4) {
-      return false;
-    }
-    // An array to remember the indexes of the last 4 line segments.
-    int[] indexes = new int[4];
-    indexes[0] = -1;
-    indexes[1] = -1;
-    indexes[2] = -1;
-    indexes[3] = -1;
-    for (int i = size - 1, j = 0; i >= 0 && j < 4; i--) {
-      if (symbols.get(i) instanceof Line) {
-        indexes[j] = i;
-        j++;
-      }
-    }
-    // If we cannot find 4 line segments, return false.
-    if (indexes[3] == -1) {
-      return false;
-    }
-    List<Symbol> component = new ArrayList<>();
-    component.add(symbols.get(indexes[3]));
-    component.add(symbols.get(indexes[2]));
-    component.add(symbols.get(indexes[1]));
-    component.add(symbols.get(indexes[0]));
-    try {
-      // Try to form a Rectangle.
-      Rectangle rectangle = new Rectangle(component);
-      symbols.remove(indexes[0]);
-      symbols.remove(indexes[1]);
-      symbols.remove(indexes[2]);
-      symbols.remove(indexes[3]);
-      symbols.add(rectangle);
-      return true;
-    } catch (IllegalArgumentException e) {
-      // If fail to form a Rectangle, return false.
-      return false;
+  /**
+   * Remove the components of a composite symbol and add it to the end of the list.
+   */
+  private void replace(List<Symbol> component, Symbol composite) {
+    for (Symbol s : component) {
+      rejected.removed(symbols.number(s));
+      symbols.remove(s);
     }
+    symbols.add(composite);
   }
 
 
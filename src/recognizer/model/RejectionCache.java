@@ -0,0 +1,133 @@
+package recognizer.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The combinations of components a rule has already rejected, so that they are not
+ * probed again.
+ *
+ * <p>A combination is kept as the rule and the numbers the symbol store gave its
+ * components, in the order of the signature. The numbers are never given twice, and
+ * symbols do not change, so a rejected combination stays rejected for as long as its
+ * components are in the model. When a symbol is removed, the combinations with it
+ * are dropped. At most a fixed number of combinations are kept, and the one used
+ * least recently is dropped to make room for another.
+ */
+class RejectionCache {
+
+  /**
+   * A rule with the numbers of its components.
+   */
+  private static final class Combination {
+    private final int rule;
+    private final long[] numbers;
+    private final int hash;
+
+    private Combination(int rule, long[] numbers) {
+      this.rule = rule;
+      this.numbers = numbers;
+      this.hash = 31 * rule + Arrays.hashCode(numbers);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof Combination)) {
+        return false;
+      }
+      Combination that = (Combination) other;
+      return rule == that.rule && Arrays.equals(numbers, that.numbers);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  private final int capacity;
+  private final LinkedHashMap<Combination, Boolean> rejected;
+  private final Map<Long, List<Combination>> byNumber;
+
+  /**
+   * Constructs an empty cache.
+   *
+   * @param capacity the largest number of combinations kept
+   */
+  RejectionCache(int capacity) {
+    this.capacity = capacity;
+    this.rejected = new LinkedHashMap<>(16, 0.75f, true);
+    this.byNumber = new HashMap<>();
+  }
+
+  /**
+   * Whether the rule has rejected this combination.
+   *
+   * @param numbers the numbers of the components, in the order of the signature
+   */
+  boolean isRejected(int rule, long[] numbers) {
+    return rejected.get(new Combination(rule, numbers)) != null;
+  }
+
+  /**
+   * Keep a combination the rule rejected.
+   *
+   * @param numbers the numbers of the components, in the order of the signature
+   */
+  void reject(int rule, long[] numbers) {
+    Combination combination = new Combination(rule, numbers.clone());
+    if (rejected.put(combination, true) != null) {
+      return;
+    }
+    for (long number : combination.numbers) {
+      byNumber.computeIfAbsent(number, k -> new ArrayList<>()).add(combination);
+    }
+    if (rejected.size() > capacity) {
+      Iterator<Combination> eldest = rejected.keySet().iterator();
+      Combination dropped = eldest.next();
+      eldest.remove();
+      unindex(dropped);
+    }
+  }
+
+  /**
+   * Drop the combinations with the symbol of this number, when it leaves the model.
+   */
+  void removed(long number) {
+    List<Combination> combinations = byNumber.remove(number);
+    if (combinations == null) {
+      return;
+    }
+    for (Combination combination : combinations) {
+      if (rejected.remove(combination) != null) {
+        unindex(combination);
+      }
+    }
+  }
+
+  /**
+   * Get the number of combinations kept.
+   *
+   * @return the number of rejected combinations
+   */
+  int size() {
+    return rejected.size();
+  }
+
+  private void unindex(Combination combination) {
+    for (long number : combination.numbers) {
+      List<Combination> combinations = byNumber.get(number);
+      if (combinations != null) {
+        combinations.remove(combination);
+        if (combinations.isEmpty()) {
+          byNumber.remove(number);
+        }
+      }
+    }
+  }
+}
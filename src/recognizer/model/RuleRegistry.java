@@ -0,0 +1,109 @@
+package recognizer.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import recognizer.symbol.Symbol;
+
+/**
+ * An ordered list of composite rules, dispatched by the types of their components.
+ *
+ * <p>When a symbol is added to the recognizer or formed by a rule, only the rules that
+ * take a symbol of its type are tried, in the order they are registered. The rules
+ * for each type are found once and kept, so a rule for another type costs nothing on
+ * the path of a symbol it cannot take. Rules should be registered most specific
+ * first, for example the equilateral triangle before the triangle.
+ */
+public class RuleRegistry {
+
+  private final List<CompositeRule> rules;
+  private final Map<Class<?>, int[]> dispatch;
+
+  /**
+   * Constructs an empty registry.
+   */
+  public RuleRegistry() {
+    rules = new ArrayList<>();
+    dispatch = new HashMap<>();
+  }
+
+  /**
+   * Constructs a registry with the rules of another, in the same order.
+   *
+   * @param other the registry to copy
+   */
+  public RuleRegistry(RuleRegistry other) {
+    this();
+    rules.addAll(other.rules);
+  }
+
+  /**
+   * Add a rule to the end of the registry.
+   *
+   * @param rule a composite rule
+   * @throws IllegalArgumentException when the rule is null
+   */
+  public void register(CompositeRule rule) {
+    if (rule == null) {
+      throw new IllegalArgumentException("Null rule.");
+    }
+    rules.add(rule);
+    dispatch.clear();
+  }
+
+  /**
+   * Get the number of registered rules.
+   *
+   * @return the number of rules
+   */
+  public int size() {
+    return rules.size();
+  }
+
+  /**
+   * Get a rule by its position in the registry.
+   *
+   * @param index the position of the rule
+   * @return the rule
+   */
+  public CompositeRule get(int index) {
+    return rules.get(index);
+  }
+
+  /**
+   * The positions of the rules that take a symbol of this type, in order.
+   */
+  int[] rulesFor(Class<?> type) {
+    int[] toReturn = dispatch.get(type);
+    if (toReturn == null) {
+      List<Integer> positions = new ArrayList<>();
+      for (int i = 0; i < rules.size(); i++) {
+        if (rules.get(i).takes(type)) {
+          positions.add(i);
+        }
+      }
+      toReturn = new int[positions.size()];
+      for (int i = 0; i < toReturn.length; i++) {
+        toReturn[i] = positions.get(i);
+      }
+      dispatch.put(type, toReturn);
+    }
+    return toReturn;
+  }
+
+  /**
+   * The distinct component types of all the rules, in the order they first appear.
+   */
+  List<Class<? extends Symbol>> componentTypes() {
+    List<Class<? extends Symbol>> types = new ArrayList<>();
+    for (CompositeRule rule : rules) {
+      for (Class<? extends Symbol> type : rule.getSignature()) {
+        if (!types.contains(type)) {
+          types.add(type);
+        }
+      }
+    }
+    return types;
+  }
+}
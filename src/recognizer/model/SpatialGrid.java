@@ -0,0 +1,299 @@
+package recognizer.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import recognizer.symbol.Arc;
+import recognizer.symbol.Circle;
+import recognizer.symbol.CompositeSymbol;
+import recognizer.symbol.Ellipse;
+import recognizer.symbol.IPoint;
+import recognizer.symbol.Line;
+import recognizer.symbol.Symbol;
+
+/**
+ * A uniform grid over the bounding boxes of symbols, to find the symbols near
+ * another without looking at the rest.
+ *
+ * <p>Each symbol is kept with its bounding box grown by MARGIN times its larger side,
+ * the tolerance with which the composite rules let symbols meet, in every cell of
+ * the grid that box overlaps. Two symbols touch when their grown boxes overlap, so
+ * the symbols touching a symbol are found in the cells of its own box only. A box
+ * over more than MAX_CELLS cells, or not finite, or so far out that its cell
+ * indexes would not fit comfortably in a long, is kept in a list of large symbols
+ * instead. Every query looks at that list, and at the cells its own box covers;
+ * a query box over more cells than the grid has in use looks at those in use.
+ *
+ * <p>A symbol has a box if it is a line, a circle, an arc, an ellipse, or a composite
+ * symbol of such symbols. Other symbols are not kept.
+ */
+class SpatialGrid {
+
+  private static final double MARGIN = 0.1;
+  private static final int MAX_CELLS = 64;
+  private static final double MAX_INDEX = 1L << 40;
+
+  /**
+   * A symbol with its grown bounding box, and the cells the box covers unless it is
+   * large.
+   */
+  private static final class Entry {
+    private final Symbol symbol;
+    private final double minX;
+    private final double minY;
+    private final double maxX;
+    private final double maxY;
+    private final boolean large;
+    private final double cellCount;
+    private final long minCellX;
+    private final long minCellY;
+    private final long maxCellX;
+    private final long maxCellY;
+    private int query;
+
+    private Entry(Symbol symbol, double[] box, double cellSize) {
+      this.symbol = symbol;
+      double margin = MARGIN * Math.max(box[2] - box[0], box[3] - box[1]);
+      this.minX = box[0] - margin;
+      this.minY = box[1] - margin;
+      this.maxX = box[2] + margin;
+      this.maxY = box[3] + margin;
+      //the cells are counted in double, which cannot overflow.
+      double lowX = Math.floor(minX / cellSize);
+      double lowY = Math.floor(minY / cellSize);
+      double highX = Math.floor(maxX / cellSize);
+      double highY = Math.floor(maxY / cellSize);
+      this.cellCount = (highX - lowX + 1) * (highY - lowY + 1);
+      this.large = !(Math.abs(lowX) <= MAX_INDEX && Math.abs(lowY) <= MAX_INDEX
+          && Math.abs(highX) <= MAX_INDEX && Math.abs(highY) <= MAX_INDEX
+          && cellCount <= MAX_CELLS);
+      this.minCellX = (long) lowX;
+      this.minCellY = (long) lowY;
+      this.maxCellX = (long) highX;
+      this.maxCellY = (long) highY;
+    }
+
+    private boolean overlaps(Entry other) {
+      return minX <= other.maxX && other.minX <= maxX
+          && minY <= other.maxY && other.minY <= maxY;
+    }
+  }
+
+  private final double cellSize;
+  private final Map<Long, List<Entry>> cells;
+  private final List<Entry> large;
+  private final Map<Symbol, Entry> entries;
+  private int queries;
+
+  /**
+   * Constructs an empty grid.
+   *
+   * @param cellSize the side of a cell
+   */
+  SpatialGrid(double cellSize) {
+    this.cellSize = cellSize;
+    this.cells = new HashMap<>();
+    this.large = new ArrayList<>();
+    this.entries = new IdentityHashMap<>();
+  }
+
+  /**
+   * Add a symbol, if it has a bounding box.
+   */
+  void add(Symbol symbol) {
+    double[] box = bounds(symbol);
+    if (box == null) {
+      return;
+    }
+    Entry entry = new Entry(symbol, box, cellSize);
+    entries.put(symbol, entry);
+    if (entry.large) {
+      large.add(entry);
+      return;
+    }
+    //the loops stop on the last cell, so they cannot wrap around.
+    for (long x = entry.minCellX; ; x++) {
+      for (long y = entry.minCellY; ; y++) {
+        cells.computeIfAbsent(key(x, y), k -> new ArrayList<>()).add(entry);
+        if (y == entry.maxCellY) {
+          break;
+        }
+      }
+      if (x == entry.maxCellX) {
+        break;
+      }
+    }
+  }
+
+  /**
+   * Remove a symbol. Nothing happens if it is not in the grid.
+   */
+  void remove(Symbol symbol) {
+    Entry entry = entries.remove(symbol);
+    if (entry == null) {
+      return;
+    }
+    if (entry.large) {
+      large.remove(entry);
+      return;
+    }
+    for (long x = entry.minCellX; ; x++) {
+      for (long y = entry.minCellY; ; y++) {
+        List<Entry> list = cells.get(key(x, y));
+        list.remove(entry);
+        if (list.isEmpty()) {
+          cells.remove(key(x, y));
+        }
+        if (y == entry.maxCellY) {
+          break;
+        }
+      }
+      if (x == entry.maxCellX) {
+        break;
+      }
+    }
+  }
+
+  /**
+   * The symbols within a number of steps of touching symbols from a symbol, the
+   * nearest first, each once, up to a limit. The query stops looking once the limit
+   * is reached.
+   *
+   * @param steps the largest number of steps, 1 for the symbols touching it
+   * @param limit the largest number of symbols returned
+   * @return the symbols near it, empty if the symbol is not in the grid
+   */
+  List<Symbol> near(Symbol symbol, int steps, int limit) {
+    List<Symbol> toReturn = new ArrayList<>();
+    Entry entry = entries.get(symbol);
+    if (entry == null) {
+      return toReturn;
+    }
+    //each entry remembers the last query that saw it, instead of a set of seen ones.
+    int query = ++queries;
+    entry.query = query;
+    List<Entry> frontier = new ArrayList<>();
+    frontier.add(entry);
+    for (int step = 0; step < steps && toReturn.size() < limit; step++) {
+      List<Entry> next = new ArrayList<>();
+      for (Entry from : frontier) {
+        if (!touching(from, query, limit - toReturn.size(), next)) {
+          break;
+        }
+      }
+      for (Entry found : next) {
+        toReturn.add(found.symbol);
+      }
+      frontier = next;
+    }
+    return toReturn;
+  }
+
+  /**
+   * Add the entries touching an entry, not yet seen by the query.
+   *
+   * @return false when the limit is reached
+   */
+  private boolean touching(Entry entry, int query, int limit, List<Entry> toReturn) {
+    int max = toReturn.size() + limit;
+    if (entry.large || entry.cellCount > cells.size()) {
+      //fewer cells in use than covered: look at those in use, and only those.
+      for (List<Entry> list : cells.values()) {
+        if (!collect(list, entry, query, max, toReturn)) {
+          return false;
+        }
+      }
+      return collect(large, entry, query, max, toReturn);
+    }
+    for (long x = entry.minCellX; ; x++) {
+      for (long y = entry.minCellY; ; y++) {
+        List<Entry> list = cells.get(key(x, y));
+        if (list != null && !collect(list, entry, query, max, toReturn)) {
+          return false;
+        }
+        if (y == entry.maxCellY) {
+          break;
+        }
+      }
+      if (x == entry.maxCellX) {
+        break;
+      }
+    }
+    return collect(large, entry, query, max, toReturn);
+  }
+
+  /**
+   * Add the candidates overlapping the entry, not yet seen by the query.
+   *
+   * @return false when the limit is reached
+   */
+  private static boolean collect(Iterable<Entry> candidates, Entry entry, int query,
+                                 int limit, List<Entry> toReturn) {
+    for (Entry other : candidates) {
+      if (toReturn.size() == limit) {
+        return false;
+      }
+      if (other.query != query && other.overlaps(entry)) {
+        other.query = query;
+        toReturn.add(other);
+      }
+    }
+    return toReturn.size() < limit;
+  }
+
+  /**
+   * The key of a cell. Unlike (x << 32) ^ y, whose hash code is x ^ y, it spreads
+   * nearby cells over the hash table. Two cells may share a key, which only puts
+   * their points in the same list.
+   */
+  private static long key(long x, long y) {
+    return x * 0x9E3779B97F4A7C15L + y;
+  }
+
+  /**
+   * The bounding box of a symbol as {minX, minY, maxX, maxY}, or null if it has none.
+   */
+  static double[] bounds(Symbol symbol) {
+    if (symbol instanceof Line) {
+      Line line = (Line) symbol;
+      return new double[] {line.getMinX(), line.getMinY(), line.getMaxX(), line.getMaxY()};
+    }
+    if (symbol instanceof Circle) {
+      Circle circle = (Circle) symbol;
+      return new double[] {circle.getMinX(), circle.getMinY(), circle.getMaxX(),
+          circle.getMaxY()};
+    }
+    if (symbol instanceof Arc) {
+      return around(((Arc) symbol).getCenter(), ((Arc) symbol).getRadius());
+    }
+    if (symbol instanceof Ellipse) {
+      return around(((Ellipse) symbol).getCenter(), ((Ellipse) symbol).getSemiMajor());
+    }
+    if (symbol instanceof CompositeSymbol) {
+      double[] box = null;
+      for (Symbol component : ((CompositeSymbol) symbol).getComponents()) {
+        double[] other = bounds(component);
+        if (other == null) {
+          return null;
+        }
+        if (box == null) {
+          box = other;
+        } else {
+          box[0] = Math.min(box[0], other[0]);
+          box[1] = Math.min(box[1], other[1]);
+          box[2] = Math.max(box[2], other[2]);
+          box[3] = Math.max(box[3], other[3]);
+        }
+      }
+      return box;
+    }
+    return null;
+  }
+
+  private static double[] around(IPoint center, double radius) {
+    return new double[] {center.getX() - radius, center.getY() - radius,
+        center.getX() + radius, center.getY() + radius};
+  }
+}
@@ -0,0 +1,113 @@
+package recognizer.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import recognizer.symbol.IPoint;
+import recognizer.symbol.Point;
+
+/**
+ * A growable buffer of the points of one stroke. The coordinates are kept in two
+ * parallel primitive arrays instead of a list of point objects, so a stroke costs
+ * two doubles per sample and the fitters can loop over the arrays directly.
+ *
+ * <p>The buffer also keeps the running sums of its points, updated on every add.
+ */
+public class StrokeBuffer {
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  private double[] xs;
+  private double[] ys;
+  private int size;
+  private final Moments moments;
+
+  /**
+   * Constructs an empty buffer.
+   */
+  public StrokeBuffer() {
+    xs = new double[INITIAL_CAPACITY];
+    ys = new double[INITIAL_CAPACITY];
+    size = 0;
+    moments = new Moments();
+  }
+
+  /**
+   * Adds a point to the end of the buffer, growing the arrays if needed.
+   *
+   * @param x x coordinate of the point
+   * @param y y coordinate of the point
+   */
+  public void add(double x, double y) {
+    if (size == xs.length) {
+      xs = Arrays.copyOf(xs, size * 2);
+      ys = Arrays.copyOf(ys, size * 2);
+    }
+    xs[size] = x;
+    ys[size] = y;
+    size++;
+    moments.add(x, y);
+  }
+
+  /**
+   * Removes all the points. The arrays are kept for the next stroke.
+   */
+  public void clear() {
+    size = 0;
+    moments.clear();
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public double getX(int i) {
+    return xs[i];
+  }
+
+  public double getY(int i) {
+    return ys[i];
+  }
+
+  /**
+   * Get the backing array of x coordinates. Only the first size() entries are
+   * valid. The array is not copied, it must not be modified by the caller.
+   *
+   * @return the x coordinates
+   */
+  public double[] getXs() {
+    return xs;
+  }
+
+  /**
+   * Get the backing array of y coordinates. Only the first size() entries are
+   * valid. The array is not copied, it must not be modified by the caller.
+   *
+   * @return the y coordinates
+   */
+  public double[] getYs() {
+    return ys;
+  }
+
+  /**
+   * Get the running sums of the points in the buffer.
+   *
+   * @return the sums, updated as points are added
+   */
+  public Moments getMoments() {
+    return moments;
+  }
+
+  /**
+   * Get the points of the buffer as a new list of point objects.
+   *
+   * @return List of points
+   */
+  public List<IPoint> toPoints() {
+    List<IPoint> toReturn = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      toReturn.add(new Point(xs[i], ys[i]));
+    }
+    return toReturn;
+  }
+}
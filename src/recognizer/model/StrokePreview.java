@@ -0,0 +1,79 @@
+package recognizer.model;
+
+import recognizer.symbol.BasicSymbol;
+import recognizer.symbol.Line;
+
+/**
+ * Guesses the basic symbol a stroke will be recognized as, while it is still being
+ * drawn. The guess is solved only from the running sums of the stroke and its first
+ * and last points, so it costs the same for every mouse event, however long the
+ * stroke is, and never loops over the points.
+ *
+ * <p>The straightness of the stroke is read from the spread of its points: with l1
+ * and l2 the largest and smallest variances along the principal axes of the points,
+ * the straightness is 1 - sqrt(l2 / l1). For points spread evenly along a segment
+ * this is close to the goodness of the line fitter. If the straightness is at least
+ * the threshold, the guess is the principal axis, cut at the projections of the first
+ * and the last point. Otherwise the guess is the circle solved from the same sums as
+ * the circle fitter.
+ *
+ * <p>The guess is only a hint. On mouse release the stroke is fitted by the fitters,
+ * which may pick a different symbol.
+ */
+public class StrokePreview {
+
+  private final double threshold;
+  private final CircleFitter circleFitter;
+
+  /**
+   * Constructs a preview.
+   *
+   * @param threshold the straightness at which a stroke is previewed as a line
+   */
+  public StrokePreview(double threshold) {
+    this.threshold = threshold;
+    this.circleFitter = new CircleFitter();
+  }
+
+  /**
+   * Guess the basic symbol of the stroke so far.
+   *
+   * @param stroke the stroke being drawn
+   * @return a line or a circle, or null if there are too few distinct points
+   */
+  public BasicSymbol preview(StrokeBuffer stroke) {
+    int n = stroke.size();
+    if (n < 2) {
+      return null;
+    }
+    Moments moments = stroke.getMoments();
+    double avgX = moments.getSx() / n;
+    double avgY = moments.getSy() / n;
+    double sXX = moments.getSxx() - moments.getSx() * avgX;
+    double sYY = moments.getSyy() - moments.getSy() * avgY;
+    double sXY = moments.getSxy() - moments.getSx() * avgY;
+
+    //largest and smallest variances, along and across the principal axis.
+    double mean = (sXX + sYY) / 2;
+    double spread = Math.hypot((sXX - sYY) / 2, sXY);
+    double l1 = mean + spread;
+    double l2 = Math.max(0, mean - spread);
+    if (l1 <= 0) {
+      return null;
+    }
+
+    if (1 - Math.sqrt(l2 / l1) >= threshold) {
+      double angle = Math.atan2(2 * sXY, sXX - sYY) / 2;
+      double a = Math.cos(angle);
+      double b = Math.sin(angle);
+      double t1 = a * (stroke.getX(0) - avgX) + b * (stroke.getY(0) - avgY);
+      double t2 = a * (stroke.getX(n - 1) - avgX) + b * (stroke.getY(n - 1) - avgY);
+      if (t1 != t2) {
+        return new Line(avgX + t1 * a, avgY + t1 * b, avgX + t2 * a, avgY + t2 * b);
+      }
+    }
+
+    circleFitter.fit(stroke.getXs(), stroke.getYs(), n, moments);
+    return circleFitter.getSolvedCircle();
+  }
+}
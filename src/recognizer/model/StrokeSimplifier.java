@@ -0,0 +1,32 @@
+package recognizer.model;
+
+/**
+ * Interface for a stage that reduces the number of points of a stroke before it is
+ * fitted. Mouse drags produce many duplicate or nearly collinear points, which cost
+ * time in every fitter but hardly change the fitted symbol.
+ *
+ * <p>A simplifier can drop points as they arrive, which also keeps them out of the
+ * running sums, or simplify the whole stroke once it is complete, or both.
+ */
+public interface StrokeSimplifier {
+
+  /**
+   * Decide whether a new point is kept, given the points of the stroke kept so far.
+   * It is called for every point added to the model.
+   *
+   * @param stroke the points kept so far
+   * @param x x coordinate of the new point
+   * @param y y coordinate of the new point
+   * @return true if the point should be added to the stroke
+   */
+  boolean keep(StrokeBuffer stroke, double x, double y);
+
+  /**
+   * Simplify a complete stroke before it is fitted.
+   *
+   * @param stroke the complete stroke, it is not changed
+   * @param out a buffer that may be cleared and filled with the simplified stroke
+   * @return the buffer holding the points to fit, either stroke or out
+   */
+  StrokeBuffer simplify(StrokeBuffer stroke, StrokeBuffer out);
+}
@@ -0,0 +1,53 @@
+package recognizer.model;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+import recognizer.symbol.Symbol;
+
+/**
+ * A read-only list of the symbols of a recognizer at one version. The symbols are
+ * immutable, so they are not copied, and the list never changes once taken: adding
+ * or removing a symbol later gives a new snapshot with a greater version.
+ *
+ * <p>Snapshots taken between two removals share the same array, each seeing its own
+ * prefix of it, so taking a snapshot after adding a symbol does not copy the others.
+ */
+public final class SymbolSnapshot extends AbstractList<Symbol> implements RandomAccess {
+
+  private final Symbol[] symbols;
+  private final int size;
+  private final long version;
+
+  /**
+   * Constructs a snapshot of the first size symbols of the array, which must never
+   * be changed below size afterwards.
+   */
+  SymbolSnapshot(Symbol[] symbols, int size, long version) {
+    this.symbols = symbols;
+    this.size = size;
+    this.version = version;
+  }
+
+  @Override
+  public Symbol get(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+    return symbols[index];
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Get the version of the recognizer this snapshot was taken at. Two snapshots of
+   * the same recognizer with the same version hold the same symbols.
+   *
+   * @return the version, which grows with every change of the symbols
+   */
+  public long getVersion() {
+    return version;
+  }
+}
@@ -0,0 +1,248 @@
+package recognizer.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import recognizer.symbol.Symbol;
+
+/**
+ * The symbols of a recognizer in the order they were added, with a recency index
+ * for each of a few symbol types. The recognizer only ever looks at the last few
+ * symbols of a type, such as the last three lines, so it asks the index of that
+ * type instead of scanning the whole list backwards.
+ *
+ * <p>A symbol is in the index of every indexed type it is an instance of, so an
+ * equilateral triangle is in the index of triangles. Each index keeps its symbols in
+ * the order they were added, the most recent last.
+ *
+ * <p>Each symbol is held by a node linked both into the list of all the symbols and
+ * into the list of each of its indexed types, and the nodes are found from the
+ * symbols by an identity hash map. Adding, finding and removing a symbol are then
+ * constant time, whatever the number of symbols, and removing one does not move the
+ * others.
+ *
+ * <p>Each symbol also gets a number when added, greater than those of all the symbols
+ * added before it, and is kept in a spatial grid, so that the symbols touching it
+ * can be found without looking at the others.
+ *
+ * <p>The store also hands out read-only snapshots of its symbols, and only builds a
+ * new one when the symbols have changed since the last. The symbols added since the
+ * last snapshot are appended to the array it shares with the previous snapshots;
+ * the array is only rebuilt after a removal.
+ */
+class SymbolStore {
+
+  /**
+   * A symbol with its neighbours in the list of all the symbols and in the list of
+   * each indexed type, null when it is not of that type or has no such neighbour.
+   */
+  private static final class Node {
+    private final Symbol symbol;
+    private final long number;
+    private Node previous;
+    private Node next;
+    private final Node[] previousOfType;
+    private final Node[] nextOfType;
+
+    private Node(Symbol symbol, long number, int types) {
+      this.symbol = symbol;
+      this.number = number;
+      this.previousOfType = new Node[types];
+      this.nextOfType = new Node[types];
+    }
+  }
+
+  private static final double CELL_SIZE = 64;
+
+  private final Class<?>[] types;
+  private final SpatialGrid grid;
+  private long nextNumber;
+  private final Map<Symbol, Node> nodes;
+  private Node first;
+  private Node last;
+  private final Node[] lastOfType;
+  private long version;
+  private Symbol[] ordered;
+  private int orderedSize;
+  private boolean removed;
+  private SymbolSnapshot snapshot;
+
+  /**
+   * Constructs an empty store.
+   *
+   * @param indexedTypes the symbol types to keep a recency index for
+   */
+  SymbolStore(List<Class<? extends Symbol>> indexedTypes) {
+    types = indexedTypes.toArray(new Class<?>[0]);
+    nodes = new IdentityHashMap<>();
+    grid = new SpatialGrid(CELL_SIZE);
+    lastOfType = new Node[types.length];
+    ordered = new Symbol[16];
+    snapshot = new SymbolSnapshot(ordered, 0, 0);
+  }
+
+  /**
+   * Add a symbol after all the others. Nothing happens if it is already in the store.
+   *
+   * @param symbol the symbol to add
+   */
+  void add(Symbol symbol) {
+    if (nodes.containsKey(symbol)) {
+      return;
+    }
+    Node node = new Node(symbol, nextNumber++, types.length);
+    nodes.put(symbol, node);
+    grid.add(symbol);
+    node.previous = last;
+    if (last == null) {
+      first = node;
+    } else {
+      last.next = node;
+    }
+    last = node;
+    for (int t = 0; t < types.length; t++) {
+      if (types[t].isInstance(symbol)) {
+        node.previousOfType[t] = lastOfType[t];
+        if (lastOfType[t] != null) {
+          lastOfType[t].nextOfType[t] = node;
+        }
+        lastOfType[t] = node;
+      }
+    }
+    version++;
+    if (!removed) {
+      if (orderedSize == ordered.length) {
+        ordered = Arrays.copyOf(ordered, orderedSize * 2);
+      }
+      ordered[orderedSize++] = symbol;
+    }
+  }
+
+  /**
+   * Remove a symbol, compared by reference. Nothing happens if it is not in the store.
+   *
+   * @param symbol the symbol to remove
+   */
+  void remove(Symbol symbol) {
+    Node node = nodes.remove(symbol);
+    if (node == null) {
+      return;
+    }
+    grid.remove(symbol);
+    if (node.previous == null) {
+      first = node.next;
+    } else {
+      node.previous.next = node.next;
+    }
+    if (node.next == null) {
+      last = node.previous;
+    } else {
+      node.next.previous = node.previous;
+    }
+    for (int t = 0; t < types.length; t++) {
+      Node previous = node.previousOfType[t];
+      Node next = node.nextOfType[t];
+      if (previous != null) {
+        previous.nextOfType[t] = next;
+      }
+      if (next != null) {
+        next.previousOfType[t] = previous;
+      } else if (lastOfType[t] == node) {
+        lastOfType[t] = previous;
+      }
+    }
+    version++;
+    removed = true;
+  }
+
+  /**
+   * Whether this symbol, compared by reference, is in the store.
+   */
+  boolean contains(Symbol symbol) {
+    return nodes.containsKey(symbol);
+  }
+
+  /**
+   * Get the number the symbol was given when added: the symbols added later have
+   * greater numbers.
+   *
+   * @param symbol a symbol in the store
+   * @return its number
+   * @throws IllegalArgumentException when the symbol is not in the store
+   */
+  long number(Symbol symbol) {
+    Node node = nodes.get(symbol);
+    if (node == null) {
+      throw new IllegalArgumentException("Symbol not in the store.");
+    }
+    return node.number;
+  }
+
+  /**
+   * The symbols within a number of steps of touching symbols from a symbol, found in
+   * the spatial grid, the nearest first. Symbols without a bounding box touch nothing.
+   *
+   * @param symbol a symbol in the store
+   * @param steps the largest number of steps, 1 for the symbols touching it
+   * @param limit the largest number of symbols returned
+   * @return the symbols near it
+   */
+  List<Symbol> near(Symbol symbol, int steps, int limit) {
+    return grid.near(symbol, steps, limit);
+  }
+
+  /**
+   * The last symbols of an indexed type, in time O(count).
+   *
+   * @param type one of the indexed types
+   * @param count the number of symbols wanted
+   * @return the last count symbols of the type, the most recent first, or fewer when
+   *         there are not as many in the store
+   * @throws IllegalArgumentException when the type is not indexed
+   */
+  List<Symbol> last(Class<? extends Symbol> type, int count) {
+    int t = typeIndex(type);
+    List<Symbol> toReturn = new ArrayList<>(count);
+    for (Node node = lastOfType[t]; node != null && toReturn.size() < count;
+         node = node.previousOfType[t]) {
+      toReturn.add(node.symbol);
+    }
+    return toReturn;
+  }
+
+  /**
+   * A read-only snapshot of all the symbols in the order they were added. The same
+   * snapshot is returned until the symbols change.
+   */
+  SymbolSnapshot snapshot() {
+    if (snapshot.getVersion() == version) {
+      return snapshot;
+    }
+    if (removed) {
+      //earlier snapshots still see the old array, so fill a new one.
+      ordered = new Symbol[Math.max(16, nodes.size() * 2)];
+      orderedSize = 0;
+      for (Node node = first; node != null; node = node.next) {
+        ordered[orderedSize++] = node.symbol;
+      }
+      removed = false;
+    }
+    snapshot = new SymbolSnapshot(ordered, orderedSize, version);
+    return snapshot;
+  }
+
+  int size() {
+    return nodes.size();
+  }
+
+  private int typeIndex(Class<? extends Symbol> type) {
+    for (int t = 0; t < types.length; t++) {
+      if (types[t] == type) {
+        return t;
+      }
+    }
+    throw new IllegalArgumentException("Type not indexed.");
+  }
+}
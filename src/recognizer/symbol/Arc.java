@@ -0,0 +1,99 @@
+package recognizer.symbol;
+
+/**
+ * This class represents an arc of a circle by the center point and the radius of the
+ * circle, the angle at which the arc starts and the angle it sweeps. Angles are in
+ * radians from the x axis, towards the y axis. An arc is a basic symbol.
+ */
+public class Arc implements BasicSymbol {
+
+  private final IPoint center;
+  private final double radius;
+  private final double startAngle;
+  private final double sweep;
+
+  /**
+   * Constructor for the arc class. If the radius or the sweep is not possible,
+   * throws exception.
+   *
+   * @param centerX center point x value
+   * @param centerY center point y value
+   * @param radius radius must be positive
+   * @param startAngle the angle of the start of the arc, in radians
+   * @param sweep the angle from the start to the end of the arc, in radians, not zero
+   *              and at most a full turn either way
+   */
+  public Arc(double centerX, double centerY, double radius, double startAngle,
+             double sweep) {
+    if (radius <= 0) {
+      throw new IllegalArgumentException("Radius should be positive.");
+    }
+    if (sweep == 0 || Math.abs(sweep) > 2 * Math.PI) {
+      throw new IllegalArgumentException("Sweep should be within a full turn.");
+    }
+    this.center = new Point(centerX, centerY);
+    this.radius = radius;
+    this.startAngle = startAngle;
+    this.sweep = sweep;
+  }
+
+  @Override
+  public Symbol copy() {
+    return new Arc(center.getX(), center.getY(), radius, startAngle, sweep);
+  }
+
+  @Override
+  public String toString() {
+    return "(Arc " + center.toString() + String.format(" %.2f %.2f %.2f)", radius,
+        Math.toDegrees(startAngle), Math.toDegrees(sweep));
+  }
+
+  /**
+   * Get the center point of the circle of the arc. Points do not change, so the same
+   * point is returned each time.
+   *
+   * @return the center point
+   */
+  public IPoint getCenter() {
+    return center;
+  }
+
+  /**
+   * Get the radius of the arc.
+   *
+   * @return the radius in double
+   */
+  public double getRadius() {
+    return radius;
+  }
+
+  /**
+   * Get the angle at which the arc starts.
+   *
+   * @return the start angle in radians
+   */
+  public double getStartAngle() {
+    return startAngle;
+  }
+
+  /**
+   * Get the angle the arc sweeps from its start to its end, positive towards the y axis.
+   *
+   * @return the sweep in radians
+   */
+  public double getSweep() {
+    return sweep;
+  }
+
+  /**
+   * Get the point of the arc at the given angle from its start.
+   *
+   * @param t the angle from the start, in radians
+   * @return a point on the arc
+   */
+  public IPoint pointAt(double t) {
+    double theta = startAngle + t;
+    return new Point(center.getX() + radius * Math.cos(theta),
+        center.getY() + radius * Math.sin(theta));
+  }
+}
@@ -4,7 +4,7 @@ package recognizer.symbol;
  * The BasicSymbol interface extends the Symbol interface. It represents
  * basic symbols. Basic symbols can form composite symbols. For example,
  * three line segments form a triangle.
- * So far, there are only two types of basic symbols: Circle and Line.
+ * So far, there are four types of basic symbols: Line, Circle, Arc and Ellipse.
  */
 public interface BasicSymbol extends Symbol {
 
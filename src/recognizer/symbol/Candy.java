@@ -19,9 +19,16 @@ public class Candy extends CompositeSymbolAbstract {
     }
   }
 
+  /**
+   * Constructs a copy of a Candy that was already checked.
+   */
+  private Candy(Candy other) {
+    super(other);
+  }
+
   @Override
   public Symbol copy() {
-    return new Candy(this.getComponents());
+    return new Candy(this);
   }
 
   @Override
@@ -33,6 +40,25 @@ public class Candy extends CompositeSymbolAbstract {
 
   @Override
   public boolean canForm(List<Symbol> symbols) {
+    return canForm(symbols, imprecision);
+  }
+
+  /**
+   * Check if the symbols can form a candy, without constructing one. Unlike the
+   * constructor, it does not throw when they cannot, so it is cheap to call on
+   * candidates that mostly fail.
+   *
+   * @param symbols a list of candidate components
+   * @return true if they can form a candy
+   */
+  public static boolean probe(List<Symbol> symbols) {
+    return canForm(symbols, DEFAULT_IMPRECISION);
+  }
+
+  static boolean canForm(List<Symbol> symbols, double imprecision) {
+    if (symbols == null) {
+      return false;
+    }
     Triangle t1 = null;
     Triangle t2 = null;
     Circle c = null;
@@ -69,11 +95,15 @@ public class Candy extends CompositeSymbolAbstract {
     sides2.sort(Comparator.comparingDouble(cCenter::distanceTo));
     double d2 = 2 * t2Center.distanceTo(sides2.get(2));
 
-    return Utility.sameDistance(t1Center.distanceTo(cCenter), d1 + r,
+    return Geometry.sameDistance(distanceSquared(t1Center, cCenter), d1 + r,
             imprecision)
-            && Utility.sameDistance(t2Center.distanceTo(cCenter), d2 + r,
+            && Geometry.sameDistance(distanceSquared(t2Center, cCenter), d2 + r,
             imprecision)
-            && Utility.sameDistance(t1Center.distanceTo(t2Center),
+            && Geometry.sameDistance(distanceSquared(t1Center, t2Center),
             d1 + r * 2 + d2, imprecision);
   }
+
+  private static double distanceSquared(IPoint p1, IPoint p2) {
+    return Geometry.distanceSquared(p1.getX(), p1.getY(), p2.getX(), p2.getY());
+  }
 }
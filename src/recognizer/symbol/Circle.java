@@ -35,12 +35,67 @@ public class Circle implements BasicSymbol {
   }
 
   /**
-   * Get the center point of the circle.
+   * Get the center point of the circle. Points do not change, so the same point is
+   * returned each time.
    *
    * @return the center point
    */
   public IPoint getCenter() {
-    return center.copy();
+    return center;
+  }
+
+  /**
+   * Get the x coordinate of the center, without going through a point.
+   *
+   * @return the x coordinate
+   */
+  public double getCenterX() {
+    return center.getX();
+  }
+
+  /**
+   * Get the y coordinate of the center, without going through a point.
+   *
+   * @return the y coordinate
+   */
+  public double getCenterY() {
+    return center.getY();
+  }
+
+  /**
+   * Get the smallest x coordinate of the circle, the left of its bounding box.
+   *
+   * @return the smallest x coordinate
+   */
+  public double getMinX() {
+    return center.getX() - radius;
+  }
+
+  /**
+   * Get the smallest y coordinate of the circle, the top of its bounding box.
+   *
+   * @return the smallest y coordinate
+   */
+  public double getMinY() {
+    return center.getY() - radius;
+  }
+
+  /**
+   * Get the largest x coordinate of the circle, the right of its bounding box.
+   *
+   * @return the largest x coordinate
+   */
+  public double getMaxX() {
+    return center.getX() + radius;
+  }
+
+  /**
+   * Get the largest y coordinate of the circle, the bottom of its bounding box.
+   *
+   * @return the largest y coordinate
+   */
+  public double getMaxY() {
+    return center.getY() + radius;
   }
 
   /**
@@ -20,7 +20,7 @@ public interface CompositeSymbol extends Symbol {
   String toString();
 
   /**
-   * Return a copy of the list of basic symbols that form this composite symbol.
+   * Return the basic symbols that form this composite symbol, as a read-only list.
    * @return a list of BasicSymbol
    */
   List<Symbol> getComponents();
@@ -1,6 +1,7 @@
 package recognizer.symbol;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -14,23 +15,41 @@ import java.util.List;
 /**
  * As of assignment 10, we changed the imprecision to 0.1 to allow easier construction
  * of composite triangle by the user on graphic user interface.
+ *
+ * <p>A composite symbol cannot change once constructed: its components are only
+ * added by the constructor of the subclass, and are themselves immutable.
  */
 public abstract class CompositeSymbolAbstract implements CompositeSymbol {
 
+  protected static final double DEFAULT_IMPRECISION = 0.1;
+
   protected final List<Symbol> symbols;
-  protected double imprecision;
+  protected final double imprecision;
 
   public CompositeSymbolAbstract() {
     this.symbols = new ArrayList<>();
-    this.imprecision = 0.1;
+    this.imprecision = DEFAULT_IMPRECISION;
+  }
+
+  /**
+   * Constructs a copy of a composite symbol that was already checked, sharing its
+   * components, which cannot change.
+   *
+   * @param other the composite symbol to copy
+   */
+  protected CompositeSymbolAbstract(CompositeSymbolAbstract other) {
+    this.symbols = other.symbols;
+    this.imprecision = other.imprecision;
   }
 
+  /**
+   * Return the components. The symbols cannot change, so they are not copied, and
+   * the list is read-only.
+   *
+   * @return a read-only list of the components
+   */
   @Override
   public List<Symbol> getComponents() {
-    List<Symbol> newList = new ArrayList<>();
-    for (Symbol s : symbols) {
-      newList.add(s.copy());
-    }
-    return newList;
+    return Collections.unmodifiableList(symbols);
   }
 }
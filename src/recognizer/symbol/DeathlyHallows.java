@@ -18,9 +18,16 @@ public class DeathlyHallows extends CompositeSymbolAbstract {
     }
   }
 
+  /**
+   * Constructs a copy of a DeathlyHallows that was already checked.
+   */
+  private DeathlyHallows(DeathlyHallows other) {
+    super(other);
+  }
+
   @Override
   public Symbol copy() {
-    return new DeathlyHallows(this.getComponents());
+    return new DeathlyHallows(this);
   }
 
   @Override
@@ -32,6 +39,25 @@ public class DeathlyHallows extends CompositeSymbolAbstract {
 
   @Override
   public boolean canForm(List<Symbol> symbols) {
+    return canForm(symbols, imprecision);
+  }
+
+  /**
+   * Check if the symbols can form a deathly hallows sign, without constructing
+   * one. Unlike the constructor, it does not throw when they cannot, so it is
+   * cheap to call on candidates that mostly fail.
+   *
+   * @param symbols a list of candidate components
+   * @return true if they can form a deathly hallows sign
+   */
+  public static boolean probe(List<Symbol> symbols) {
+    return canForm(symbols, DEFAULT_IMPRECISION);
+  }
+
+  static boolean canForm(List<Symbol> symbols, double imprecision) {
+    if (symbols == null) {
+      return false;
+    }
     Triangle t = null;
     Circle c = null;
     Line l = null;
@@ -51,9 +77,10 @@ public class DeathlyHallows extends CompositeSymbolAbstract {
 
     // the circle is inside the triangle
     IPoint center = c.getCenter();
-    Line side1 = (Line) t.getComponents().get(0);
-    Line side2 = (Line) t.getComponents().get(1);
-    Line side3 = (Line) t.getComponents().get(2);
+    List<Symbol> sides = t.getComponents();
+    Line side1 = (Line) sides.get(0);
+    Line side2 = (Line) sides.get(1);
+    Line side3 = (Line) sides.get(2);
     double d1 = center.distanceTo(side1);
     double d2 = center.distanceTo(side2);
     double d3 = center.distanceTo(side3);
@@ -63,15 +90,19 @@ public class DeathlyHallows extends CompositeSymbolAbstract {
       return false;
     }
 
-    PointSet ps = new PointSet(delta);
-    ps.add(new DecoratorSymbolCenter(t).getCenter());
-    ps.add(new DecoratorSymbolCenter(c).getCenter());
-    if (ps.size() > 1) {
+    // the centers are one point, and the ends of the line two others, as in a
+    // point set of the three, compared on the coordinates.
+    double deltaSquared = Geometry.squaredTolerance(delta);
+    double centerX = (side1.getX1() + side1.getX2() + side2.getX1() + side2.getX2()
+        + side3.getX1() + side3.getX2()) / 6;
+    double centerY = (side1.getY1() + side1.getY2() + side2.getY1() + side2.getY2()
+        + side3.getY1() + side3.getY2()) / 6;
+    if (!Geometry.within(centerX, centerY, center.getX(), center.getY(), deltaSquared)) {
       return false;
     }
-    ps.add(l.getEnd1());
-    ps.add(l.getEnd2());
-    if (ps. size() != 3) {
+    if (Geometry.within(centerX, centerY, l.getX1(), l.getY1(), deltaSquared)
+        || Geometry.within(centerX, centerY, l.getX2(), l.getY2(), deltaSquared)
+        || Geometry.within(l.getX1(), l.getY1(), l.getX2(), l.getY2(), deltaSquared)) {
       return false;
     }
     Line bottom = null;
@@ -94,8 +125,8 @@ public class DeathlyHallows extends CompositeSymbolAbstract {
     if (count != 2 || bottom == null) {
       return false;
     }
-    if (!Utility.nearMiddle(bottom, l.getEnd1(), imprecision)
-            && !Utility.nearMiddle(bottom, l.getEnd2(), imprecision)) {
+    if (!Utility.nearMiddle(bottom, l.getX1(), l.getY1(), imprecision)
+            && !Utility.nearMiddle(bottom, l.getX2(), l.getY2(), imprecision)) {
       return false;
     }
     return true;
@@ -26,16 +26,20 @@ public class DecoratorSymbolCenter extends Decorator {
   public IPoint getCenter() {
     // a line
     if (delegate instanceof Line) {
-      IPoint a = ((Line) delegate).getEnd1();
-      IPoint b = ((Line) delegate).getEnd2();
-      double centerx = (a.getX() + b.getX()) / 2;
-      double centery = (a.getY() + b.getY()) / 2;
-      return new Point(centerx, centery);
+      return ((Line) delegate).getMidpoint();
     }
     // a circle
     if (delegate instanceof Circle) {
       return ((Circle) delegate).getCenter();
     }
+    // an arc, the middle of the arc rather than the center of its circle
+    if (delegate instanceof Arc) {
+      return ((Arc) delegate).pointAt(((Arc) delegate).getSweep() / 2);
+    }
+    // an ellipse
+    if (delegate instanceof Ellipse) {
+      return ((Ellipse) delegate).getCenter();
+    }
 
     // a snow man
     if (delegate instanceof Snowman) {
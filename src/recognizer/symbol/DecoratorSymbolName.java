@@ -24,6 +24,12 @@ public class DecoratorSymbolName extends Decorator {
     if (delegate instanceof Circle) {
       return "Circle";
     }
+    if (delegate instanceof Arc) {
+      return "Arc";
+    }
+    if (delegate instanceof Ellipse) {
+      return "Ellipse";
+    }
 
     if (delegate instanceof Snowman) {
       return "Snowman";
@@ -0,0 +1,94 @@
+package recognizer.symbol;
+
+/**
+ * This class represents an ellipse by its center point, its two semi-axes and the
+ * orientation of its major axis. An ellipse is a basic symbol.
+ */
+public class Ellipse implements BasicSymbol {
+
+  private final IPoint center;
+  private final double semiMajor;
+  private final double semiMinor;
+  private final double angle;
+
+  /**
+   * Constructor for the ellipse class. If a semi-axis is not possible, throws exception.
+   * The longer of the two semi-axes is taken as the major one.
+   *
+   * @param centerX center point x value
+   * @param centerY center point y value
+   * @param semiMajor half the length of the major axis, must be positive
+   * @param semiMinor half the length of the minor axis, must be positive
+   * @param angle the orientation of the major axis from the x axis, in radians
+   */
+  public Ellipse(double centerX, double centerY, double semiMajor, double semiMinor,
+                 double angle) {
+    if (semiMajor <= 0 || semiMinor <= 0) {
+      throw new IllegalArgumentException("Semi-axes should be positive.");
+    }
+    if (semiMinor > semiMajor) {
+      double tmp = semiMajor;
+      semiMajor = semiMinor;
+      semiMinor = tmp;
+      angle += Math.PI / 2;
+    }
+    //the orientation of an axis is within [0, pi).
+    angle %= Math.PI;
+    if (angle < 0) {
+      angle += Math.PI;
+    }
+    this.center = new Point(centerX, centerY);
+    this.semiMajor = semiMajor;
+    this.semiMinor = semiMinor;
+    this.angle = angle;
+  }
+
+  @Override
+  public Symbol copy() {
+    return new Ellipse(center.getX(), center.getY(), semiMajor, semiMinor, angle);
+  }
+
+  @Override
+  public String toString() {
+    return "(Ellipse " + center.toString()
+        + String.format(" %.2f %.2f %.2f)", semiMajor, semiMinor, Math.toDegrees(angle));
+  }
+
+  /**
+   * Get the center point of the ellipse. Points do not change, so the same point is
+   * returned each time.
+   *
+   * @return the center point
+   */
+  public IPoint getCenter() {
+    return center;
+  }
+
+  /**
+   * Get half the length of the major axis.
+   *
+   * @return the semi-major axis in double
+   */
+  public double getSemiMajor() {
+    return semiMajor;
+  }
+
+  /**
+   * Get half the length of the minor axis.
+   *
+   * @return the semi-minor axis in double
+   */
+  public double getSemiMinor() {
+    return semiMinor;
+  }
+
+  /**
+   * Get the orientation of the major axis from the x axis.
+   * The result is within [0, pi) in radians.
+   *
+   * @return the orientation of the major axis
+   */
+  public double getAngle() {
+    return angle;
+  }
+}
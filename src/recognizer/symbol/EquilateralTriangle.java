@@ -26,9 +26,16 @@ public class EquilateralTriangle extends Triangle {
     }
   }
 
+  /**
+   * Constructs a copy of an EquilateralTriangle that was already checked.
+   */
+  private EquilateralTriangle(EquilateralTriangle other) {
+    super(other);
+  }
+
   @Override
   public Symbol copy() {
-    return new EquilateralTriangle(getComponents());
+    return new EquilateralTriangle(this);
   }
 
   /**
@@ -40,7 +47,23 @@ public class EquilateralTriangle extends Triangle {
    */
   @Override
   public boolean canForm(List<Symbol> symbols) {
-    if (!super.canForm(symbols)) {
+    return canForm(symbols, imprecision);
+  }
+
+  /**
+   * Check if the symbols can form an equilateral triangle, without constructing
+   * one. Unlike the constructor, it does not throw when they cannot, so it is
+   * cheap to call on candidates that mostly fail.
+   *
+   * @param symbols a list of candidate components
+   * @return true if they can form an equilateral triangle
+   */
+  public static boolean probe(List<Symbol> symbols) {
+    return canForm(symbols, DEFAULT_IMPRECISION);
+  }
+
+  static boolean canForm(List<Symbol> symbols, double imprecision) {
+    if (!Triangle.canForm(symbols, imprecision)) {
       return false;
     }
     Line l1 = (Line) symbols.get(0);
@@ -0,0 +1,96 @@
+package recognizer.symbol;
+
+/**
+ * The geometric predicates of the composite rules, on raw coordinates and without
+ * square roots where a distance is only compared against a tolerance.
+ *
+ * <p>A distance d is within a tolerance t exactly when d * d is within t * t, as both
+ * are not negative, so the rules compare squared distances against squared
+ * tolerances, computed once per check. The distance from a point to a line divides
+ * a cross product by the length of the line, which the line already knows. The
+ * results are those of the square roots, but for rounding at the very boundary of a
+ * tolerance.
+ */
+public final class Geometry {
+
+  private Geometry() {
+  }
+
+  /**
+   * Get the squared distance between two points.
+   *
+   * @return the squared distance
+   */
+  public static double distanceSquared(double x1, double y1, double x2, double y2) {
+    double dx = x1 - x2;
+    double dy = y1 - y2;
+    return dx * dx + dy * dy;
+  }
+
+  /**
+   * Get the squared tolerance to compare squared distances against. A tolerance that
+   * is not positive admits no distance, so its square is 0.
+   *
+   * @param delta the tolerance on the distance
+   * @return the squared tolerance
+   */
+  public static double squaredTolerance(double delta) {
+    return delta > 0 ? delta * delta : 0;
+  }
+
+  /**
+   * Whether two points are closer than a tolerance.
+   *
+   * @param deltaSquared the squared tolerance, from squaredTolerance
+   * @return true if their distance is less than the tolerance
+   */
+  public static boolean within(double x1, double y1, double x2, double y2,
+                               double deltaSquared) {
+    return distanceSquared(x1, y1, x2, y2) < deltaSquared;
+  }
+
+  /**
+   * Whether two points are closer than a tolerance.
+   *
+   * @param deltaSquared the squared tolerance, from squaredTolerance
+   * @return true if their distance is less than the tolerance
+   */
+  public static boolean within(IPoint p1, IPoint p2, double deltaSquared) {
+    return within(p1.getX(), p1.getY(), p2.getX(), p2.getY(), deltaSquared);
+  }
+
+  /**
+   * Get the distance from a point to the line through a line segment, using the
+   * length of the segment instead of a square root.
+   *
+   * @return the distance to the line
+   */
+  public static double distanceToLine(double x, double y, Line l) {
+    double x1 = l.getX1();
+    double y1 = l.getY1();
+    double x2 = l.getX2();
+    double y2 = l.getY2();
+    return Math.abs((y1 - y2) * x + (x2 - x1) * y + (y2 * x1 - y1 * x2)) / l.length();
+  }
+
+  /**
+   * Whether a distance, given squared, is the expected one within an imprecision
+   * relative to the expected distance, that is if |d - expected| / expected is less
+   * than the imprecision.
+   *
+   * @param distanceSquared the squared distance
+   * @param expected the expected distance, positive
+   * @param imprecision the relative imprecision
+   * @return true if the distance is the expected one
+   */
+  public static boolean sameDistance(double distanceSquared, double expected,
+                                     double imprecision) {
+    if (!(expected > 0) || !(imprecision > 0)) {
+      return false;
+    }
+    double high = expected * (1 + imprecision);
+    double low = expected * (1 - imprecision);
+    //not short-circuit, as the outcome of each comparison is hard to predict.
+    return distanceSquared < high * high & (low < 0 | distanceSquared > low * low);
+  }
+}
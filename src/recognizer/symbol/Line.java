@@ -8,11 +8,19 @@ public class Line implements BasicSymbol {
 
   private final IPoint end1;
   private final IPoint end2;
+  private final IPoint midpoint;
+  private final double length;
+  private final double angle;
+  private final double directionX;
+  private final double directionY;
 
   /**
    * Constructor for making a line.
    * If point1 and point2 are the same, throws exception.
    *
+   * <p>The length, orientation, direction and midpoint of the line are computed
+   * here once, since the composite rules ask for them again and again.
+   *
    * @param x1 x val of point 1
    * @param y1 y val of point 1
    * @param x2 x val of point 2
@@ -25,6 +33,14 @@ public class Line implements BasicSymbol {
     }
     end1 = new Point(x1, y1);
     end2 = new Point(x2, y2);
+    midpoint = new Point((x1 + x2) / 2, (y1 + y2) / 2);
+    length = end1.distanceTo(end2);
+    double shadow = x1 - x2;
+    shadow = y1 > y2 ? shadow : -shadow;
+    double theta = Math.acos(shadow / length);
+    angle = Math.abs(theta - Math.PI) < 0.0001 ? 0 : theta;
+    directionX = (x2 - x1) / length;
+    directionY = (y2 - y1) / length;
   }
 
   @Override
@@ -38,25 +54,124 @@ public class Line implements BasicSymbol {
    * @return the distance from one end to the other in double.
    */
   public double length() {
-    return end1.distanceTo(end2);
+    return length;
   }
 
   /**
-   * Get end point 1.
+   * Get end point 1. Points do not change, so the same point is returned each time.
    *
    * @return a point object
    */
   public IPoint getEnd1() {
-    return end1.copy();
+    return end1;
   }
 
   /**
-   * Get end point 2.
+   * Get end point 2. Points do not change, so the same point is returned each time.
    *
    * @return a point object
    */
   public IPoint getEnd2() {
-    return end2.copy();
+    return end2;
+  }
+
+  /**
+   * Get the x coordinate of end point 1, without going through a point.
+   *
+   * @return the x coordinate
+   */
+  public double getX1() {
+    return end1.getX();
+  }
+
+  /**
+   * Get the y coordinate of end point 1, without going through a point.
+   *
+   * @return the y coordinate
+   */
+  public double getY1() {
+    return end1.getY();
+  }
+
+  /**
+   * Get the x coordinate of end point 2, without going through a point.
+   *
+   * @return the x coordinate
+   */
+  public double getX2() {
+    return end2.getX();
+  }
+
+  /**
+   * Get the y coordinate of end point 2, without going through a point.
+   *
+   * @return the y coordinate
+   */
+  public double getY2() {
+    return end2.getY();
+  }
+
+  /**
+   * Get the middle of the line segment.
+   *
+   * @return a point object
+   */
+  public IPoint getMidpoint() {
+    return midpoint;
+  }
+
+  /**
+   * Get the x component of the unit vector from end point 1 to end point 2.
+   *
+   * @return the x component of the direction
+   */
+  public double getDirectionX() {
+    return directionX;
+  }
+
+  /**
+   * Get the y component of the unit vector from end point 1 to end point 2.
+   *
+   * @return the y component of the direction
+   */
+  public double getDirectionY() {
+    return directionY;
+  }
+
+  /**
+   * Get the smallest x coordinate of the line segment, the left of its bounding box.
+   *
+   * @return the smallest x coordinate
+   */
+  public double getMinX() {
+    return Math.min(end1.getX(), end2.getX());
+  }
+
+  /**
+   * Get the smallest y coordinate of the line segment, the top of its bounding box.
+   *
+   * @return the smallest y coordinate
+   */
+  public double getMinY() {
+    return Math.min(end1.getY(), end2.getY());
+  }
+
+  /**
+   * Get the largest x coordinate of the line segment, the right of its bounding box.
+   *
+   * @return the largest x coordinate
+   */
+  public double getMaxX() {
+    return Math.max(end1.getX(), end2.getX());
+  }
+
+  /**
+   * Get the largest y coordinate of the line segment, the bottom of its bounding box.
+   *
+   * @return the largest y coordinate
+   */
+  public double getMaxY() {
+    return Math.max(end1.getY(), end2.getY());
   }
 
   /**
@@ -66,13 +181,7 @@ public class Line implements BasicSymbol {
    * @return the orientation of a line segment
    */
   public double angle() {
-    double shadow = end1.getX() - end2.getX();
-    shadow = end1.getY() > end2.getY() ? shadow : -shadow;
-    double theta = Math.acos(shadow / length());
-    if (Math.abs(theta - Math.PI) < 0.0001) {
-      return 0;
-    }
-    return Math.acos(shadow / length());
+    return angle;
   }
 
   @Override
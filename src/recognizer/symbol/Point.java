@@ -36,15 +36,7 @@ public class Point implements IPoint {
 
   @Override
   public double distanceTo(Line l) {
-    double x1 = l.getEnd1().getX();
-    double y1 = l.getEnd1().getY();
-    double x2 = l.getEnd2().getX();
-    double y2 = l.getEnd2().getY();
-    double a = y1 - y2;
-    double b = x2 - x1;
-    double c = y2 * x1 - y1 * x2;
-    double d = Math.abs(a * x + b * y + c) / Math.sqrt(a * a + b * b);
-    return d;
+    return Geometry.distanceToLine(x, y, l);
   }
 
   /**
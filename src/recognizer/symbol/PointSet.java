@@ -1,24 +1,43 @@
 package recognizer.symbol;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * A helper class to canForm triangles.
  * A PointSet is a set of points. New points that has a distance with other
  * points in the set within delta cannot be added to the set.
+ *
+ * <p>A few points, as many as the vertices of a composite symbol, are scanned in
+ * a list. Past LINEAR_MAX points, they are also kept in a hash grid of cells two
+ * deltas wide, so that a point is only compared with the points of its cell and
+ * the eight around it. Two points closer than delta are at most one cell apart,
+ * even after rounding, so the points found are the same as with the scan. Points
+ * so far out that their cell index would be beyond MAX_INDEX, where rounding and
+ * the range of a long could break this, or not finite, are kept in a list of far
+ * points that every check scans.
  */
 public class PointSet {
+  private static final int LINEAR_MAX = 16;
+  private static final double MAX_INDEX = 1L << 40;
+
   private List<IPoint> points;
-  private double delta;
+  private double deltaSquared;
+  private double cellSize;
+  private Map<Long, List<IPoint>> cells;
+  private List<IPoint> far;
 
   /**
-   * Construct a PointSet object and set the delta.
+   * Construct a PointSet object and set the delta. The points are compared by
+   * their squared distance against the squared delta.
    *
    * @param delta the shortest distance allow for points in the set
    */
-  PointSet(double delta) {
-    this.delta = delta;
+  public PointSet(double delta) {
+    this.deltaSquared = Geometry.squaredTolerance(delta);
+    this.cellSize = 2 * delta;
     this.points = new ArrayList<>();
   }
 
@@ -28,21 +47,67 @@ public class PointSet {
    *
    * @param p the point to be added
    */
-  void add(IPoint p) {
-    for (IPoint point : points) {
-      if (point.distanceTo(p) < delta) {
-        return;
-      }
+  public void add(IPoint p) {
+    if (has(p)) {
+      return;
     }
     points.add(p);
+    if (cells != null) {
+      index(p);
+    } else if (points.size() > LINEAR_MAX && deltaSquared > 0) {
+      cells = new HashMap<>();
+      far = new ArrayList<>();
+      for (IPoint point : points) {
+        index(point);
+      }
+    }
   }
 
-  boolean has(IPoint p) {
-    for (IPoint point : points) {
-      if (point.distanceTo(p) < delta) {
+  /**
+   * Check if a point is too close to a point of the set.
+   *
+   * @param p the point to check
+   * @return true if a point of the set is within delta of it
+   */
+  public boolean has(IPoint p) {
+    if (deltaSquared == 0) {
+      //no distance is less than a delta that is not positive.
+      return false;
+    }
+    if (cells == null) {
+      for (IPoint point : points) {
+        if (Geometry.within(point, p, deltaSquared)) {
+          return true;
+        }
+      }
+      return false;
+    }
+    for (IPoint point : far) {
+      if (Geometry.within(point, p, deltaSquared)) {
         return true;
       }
     }
+    double cellX = Math.floor(p.getX() / cellSize);
+    double cellY = Math.floor(p.getY() / cellSize);
+    //a point just past MAX_INDEX may still be near points in the cells.
+    if (!(Math.abs(cellX) <= MAX_INDEX + 1 && Math.abs(cellY) <= MAX_INDEX + 1)) {
+      return false;
+    }
+    long x = (long) cellX;
+    long y = (long) cellY;
+    for (int i = -1; i <= 1; i++) {
+      for (int j = -1; j <= 1; j++) {
+        List<IPoint> cell = cells.get(key(x + i, y + j));
+        if (cell == null) {
+          continue;
+        }
+        for (IPoint point : cell) {
+          if (Geometry.within(point, p, deltaSquared)) {
+            return true;
+          }
+        }
+      }
+    }
     return false;
   }
 
@@ -51,7 +116,26 @@ public class PointSet {
    *
    * @return the size of the set
    */
-  int size() {
+  public int size() {
     return points.size();
   }
+
+  private void index(IPoint p) {
+    double cellX = Math.floor(p.getX() / cellSize);
+    double cellY = Math.floor(p.getY() / cellSize);
+    if (Math.abs(cellX) <= MAX_INDEX && Math.abs(cellY) <= MAX_INDEX) {
+      cells.computeIfAbsent(key((long) cellX, (long) cellY), k -> new ArrayList<>()).add(p);
+    } else {
+      far.add(p);
+    }
+  }
+
+  /**
+   * The key of a cell. Unlike (x << 32) ^ y, whose hash code is x ^ y, it spreads
+   * nearby cells over the hash table. Two cells may share a key, which only puts
+   * their points in the same list.
+   */
+  private static long key(long x, long y) {
+    return x * 0x9E3779B97F4A7C15L + y;
+  }
 }
@@ -1,8 +1,8 @@
 package recognizer.symbol;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * This Rectangle class represents a rectangle as a composite symbol. A
@@ -20,9 +20,16 @@ public class Rectangle extends CompositeSymbolAbstract {
     }
   }
 
+  /**
+   * Constructs a copy of a Rectangle that was already checked.
+   */
+  private Rectangle(Rectangle other) {
+    super(other);
+  }
+
   @Override
   public Symbol copy() {
-    return new Rectangle(this.getComponents());
+    return new Rectangle(this);
   }
 
   @Override
@@ -35,6 +42,22 @@ public class Rectangle extends CompositeSymbolAbstract {
 
   @Override
   public boolean canForm(List<Symbol> symbols) {
+    return canForm(symbols, imprecision);
+  }
+
+  /**
+   * Check if the symbols can form a rectangle, without constructing one. Unlike the
+   * constructor, it does not throw when they cannot, so it is cheap to call on
+   * candidates that mostly fail.
+   *
+   * @param symbols a list of candidate components
+   * @return true if they can form a rectangle
+   */
+  public static boolean probe(List<Symbol> symbols) {
+    return canForm(symbols, DEFAULT_IMPRECISION);
+  }
+
+  static boolean canForm(List<Symbol> symbols, double imprecision) {
     // check if symbols contains 3 line segments.
     if (symbols == null || symbols.size() != 4) {
       return false;
@@ -46,8 +69,10 @@ public class Rectangle extends CompositeSymbolAbstract {
       return false;
     }
     // get a list of 4 line segments.
-    List<Line> lines = symbols.stream().map(s ->
-            (Line) s).collect(Collectors.toList());
+    List<Line> lines = new ArrayList<>(4);
+    for (Symbol s : symbols) {
+      lines.add((Line) s);
+    }
 
     // sort the circles in ascending order of size
     lines.sort(Comparator.comparingDouble(Line::angle));
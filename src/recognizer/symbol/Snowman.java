@@ -1,8 +1,8 @@
 package recognizer.symbol;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * This Snowman class represents a snowman as a composite symbol. A snowman
@@ -29,9 +29,16 @@ public class Snowman extends CompositeSymbolAbstract implements CompositeSymbol
     }
   }
 
+  /**
+   * Constructs a copy of a Snowman that was already checked.
+   */
+  private Snowman(Snowman other) {
+    super(other);
+  }
+
   @Override
   public Symbol copy() {
-    return new Snowman(this.getComponents());
+    return new Snowman(this);
   }
 
   @Override
@@ -49,7 +56,24 @@ public class Snowman extends CompositeSymbolAbstract implements CompositeSymbol
    * @param symbols a list of BasicSymbol
    * @return true if they can form a snowman
    */
+  @Override
   public boolean canForm(List<Symbol> symbols) {
+    return canForm(symbols, imprecision);
+  }
+
+  /**
+   * Check if the symbols can form a snowman, without constructing one. Unlike the
+   * constructor, it does not throw when they cannot, so it is cheap to call on
+   * candidates that mostly fail.
+   *
+   * @param symbols a list of candidate components
+   * @return true if they can form a snowman
+   */
+  public static boolean probe(List<Symbol> symbols) {
+    return canForm(symbols, DEFAULT_IMPRECISION);
+  }
+
+  static boolean canForm(List<Symbol> symbols, double imprecision) {
     // check if symbols contains 3 circles.
     if (symbols == null || symbols.size() != 3) {
       return false;
@@ -61,8 +85,10 @@ public class Snowman extends CompositeSymbolAbstract implements CompositeSymbol
     }
 
     // get a list of 3 circles.
-    List<Circle> circles = symbols.stream().map(s ->
-        (Circle) s).collect(Collectors.toList());
+    List<Circle> circles = new ArrayList<>(3);
+    for (Symbol s : symbols) {
+      circles.add((Circle) s);
+    }
 
     // sort the circles in ascending order of size
     circles.sort(Comparator.comparingDouble(Circle::getRadius));
@@ -83,8 +109,12 @@ public class Snowman extends CompositeSymbolAbstract implements CompositeSymbol
 
     // determine if they form a snowman by comparing the equality of the
     // distance from one center to another center and their sum of radius.
-    return Utility.sameDistance(ps.distanceTo(pm), rs + rm, imprecision)
-        && Utility.sameDistance(pm.distanceTo(pl), rm + rl, imprecision)
-        && Utility.sameDistance(ps.distanceTo(pl), rs + rm * 2 + rl, imprecision);
+    return Geometry.sameDistance(distanceSquared(ps, pm), rs + rm, imprecision)
+        && Geometry.sameDistance(distanceSquared(pm, pl), rm + rl, imprecision)
+        && Geometry.sameDistance(distanceSquared(ps, pl), rs + rm * 2 + rl, imprecision);
+  }
+
+  private static double distanceSquared(IPoint p1, IPoint p2) {
+    return Geometry.distanceSquared(p1.getX(), p1.getY(), p2.getX(), p2.getY());
   }
 }
@@ -37,6 +37,22 @@ public class Triangle extends CompositeSymbolAbstract implements CompositeSymbol
    */
   @Override
   public boolean canForm(List<Symbol> symbols) {
+    return canForm(symbols, imprecision);
+  }
+
+  /**
+   * Check if the symbols can form a triangle, without constructing one. Unlike the
+   * constructor, it does not throw when they cannot, so it is cheap to call on
+   * candidates that mostly fail.
+   *
+   * @param symbols a list of candidate components
+   * @return true if they can form a triangle
+   */
+  public static boolean probe(List<Symbol> symbols) {
+    return canForm(symbols, DEFAULT_IMPRECISION);
+  }
+
+  static boolean canForm(List<Symbol> symbols, double imprecision) {
     // check if symbols contains 3 line segments.
     if (symbols == null || symbols.size() != 3) {
       return false;
@@ -76,9 +92,16 @@ public class Triangle extends CompositeSymbolAbstract implements CompositeSymbol
 
   }
 
+  /**
+   * Constructs a copy of a Triangle that was already checked.
+   */
+  protected Triangle(Triangle other) {
+    super(other);
+  }
+
   @Override
   public Symbol copy() {
-    return new Triangle(this.getComponents());
+    return new Triangle(this);
   }
 
   @Override
@@ -29,25 +29,39 @@ public class Utility {
             < Math.PI * imprecision;
   }
 
+  /**
+   * Check if two line segments share exactly one end, within half their total length
+   * times the imprecision. This is the clustering of a point set of the ends of the
+   * first line, done on the coordinates without allocating: the second end of the
+   * first line counts only if it is apart from the first end.
+   *
+   * @return true if one end of l2, and only one, is near an end of l1
+   */
   static boolean isConnected(Line l1, Line l2, double imprecision) {
-    double delta = (l1.length() + l2.length()) * imprecision / 2;
-    PointSet ps = new PointSet(delta);
-    ps.add(l1.getEnd1());
-    ps.add(l1.getEnd2());
-    if (ps.has(l2.getEnd1())) {
-      return !ps.has(l2.getEnd2());
-    } else {
-      return ps.has(l2.getEnd2());
-    }
+    double deltaSquared = Geometry.squaredTolerance((l1.length() + l2.length())
+        * imprecision / 2);
+    boolean twoEnds = !Geometry.within(l1.getX1(), l1.getY1(), l1.getX2(), l1.getY2(),
+        deltaSquared);
+    boolean hasEnd1 = nearEnd(l1, twoEnds, l2.getX1(), l2.getY1(), deltaSquared);
+    boolean hasEnd2 = nearEnd(l1, twoEnds, l2.getX2(), l2.getY2(), deltaSquared);
+    return hasEnd1 != hasEnd2;
   }
 
-  static boolean samePoint(IPoint p1, IPoint p2, double delta) {
-    return p1.distanceTo(p2) < delta;
+  private static boolean nearEnd(Line l, boolean twoEnds, double x, double y,
+                                 double deltaSquared) {
+    return Geometry.within(l.getX1(), l.getY1(), x, y, deltaSquared)
+        || twoEnds && Geometry.within(l.getX2(), l.getY2(), x, y, deltaSquared);
   }
 
-  static boolean nearMiddle(Line l, IPoint p, double imprecision) {
-    IPoint center = new DecoratorSymbolCenter(l).getCenter();
-    double delta = l.length() * imprecision;
-    return samePoint(center, p, delta);
+  /**
+   * Check if a point is near the middle of a line segment, within its length times
+   * the imprecision, on the coordinates without allocating.
+   *
+   * @return true if the point is near the middle
+   */
+  static boolean nearMiddle(Line l, double x, double y, double imprecision) {
+    IPoint middle = l.getMidpoint();
+    return Geometry.within(middle.getX(), middle.getY(), x, y,
+        Geometry.squaredTolerance(l.length() * imprecision));
   }
 }
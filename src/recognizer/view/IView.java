@@ -2,6 +2,7 @@ package recognizer.view;
 
 import java.awt.event.MouseAdapter;
 import java.util.List;
+import recognizer.symbol.BasicSymbol;
 import recognizer.symbol.IPoint;
 import recognizer.symbol.Symbol;
 
@@ -23,4 +24,14 @@ public interface IView {
    * @param symbols List of symbols
    */
   void repaint(List<IPoint> points, List<Symbol> symbols);
+
+  /**
+   * This method will be called before a repaint to set the guessed symbol of the
+   * doodle being drawn, or null to clear it. It is shown on the next repaint.
+   * A view that does not show previews can ignore it.
+   *
+   * @param preview the guessed basic symbol, or null
+   */
+  default void showPreview(BasicSymbol preview) {
+  }
 }
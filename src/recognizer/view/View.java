@@ -2,15 +2,18 @@ package recognizer.view;
 
 import java.awt.Color;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
 import java.awt.event.MouseAdapter;
 import java.util.ArrayList;
 import java.util.List;
 import javax.swing.JFrame;
 import javax.swing.JPanel;
 import javax.swing.WindowConstants;
+import recognizer.symbol.Arc;
 import recognizer.symbol.BasicSymbol;
 import recognizer.symbol.Circle;
 import recognizer.symbol.CompositeSymbol;
+import recognizer.symbol.Ellipse;
 import recognizer.symbol.IPoint;
 import recognizer.symbol.Line;
 import recognizer.symbol.Symbol;
@@ -26,6 +29,7 @@ public class View extends JFrame implements IView {
   private JPanel drawPanel;
   private List<IPoint> listOfPoints;
   private List<Symbol> listOfSymbols;
+  private BasicSymbol preview;
 
 
   /**
@@ -57,6 +61,11 @@ public class View extends JFrame implements IView {
   }
 
 
+  @Override
+  public void showPreview(BasicSymbol preview) {
+    this.preview = preview;
+  }
+
   @Override
   public void repaint(List<IPoint> points, List<Symbol> symbols) {
     this.listOfPoints = points;
@@ -85,6 +94,12 @@ public class View extends JFrame implements IView {
     public void paintComponent(Graphics g) {
       super.paintComponent(g);
 
+      //paints the guessed symbol under the user doodle
+      if (preview != null) {
+        g.setColor(Color.lightGray);
+        drawBasicSymbol(g, preview);
+      }
+
       //paints the user doodle
       drawDoodle(g);
 
@@ -150,6 +165,28 @@ public class View extends JFrame implements IView {
         int r = (int) ((Circle) s).getRadius();
         g.drawOval((int) c.getX() - r, (int) c.getY() - r, r * 2, r * 2);
       }
+
+      //arc: the angles of drawArc are in degrees and turn the other way on screen
+      if (s instanceof Arc) {
+        Arc arc = (Arc) s;
+        IPoint c = arc.getCenter();
+        int r = (int) arc.getRadius();
+        g.drawArc((int) c.getX() - r, (int) c.getY() - r, r * 2, r * 2,
+            (int) Math.round(-Math.toDegrees(arc.getStartAngle())),
+            (int) Math.round(-Math.toDegrees(arc.getSweep())));
+      }
+
+      //ellipse: an oval drawn in a copy of the graphics rotated about its center
+      if (s instanceof Ellipse) {
+        Ellipse ellipse = (Ellipse) s;
+        IPoint c = ellipse.getCenter();
+        int a = (int) ellipse.getSemiMajor();
+        int b = (int) ellipse.getSemiMinor();
+        Graphics2D rotated = (Graphics2D) g.create();
+        rotated.rotate(ellipse.getAngle(), c.getX(), c.getY());
+        rotated.drawOval((int) c.getX() - a, (int) c.getY() - b, a * 2, b * 2);
+        rotated.dispose();
+      }
     }
 
     private void drawCompositeSymbol(Graphics g, CompositeSymbol s) {
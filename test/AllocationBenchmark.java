@@ -0,0 +1,93 @@
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import recognizer.symbol.Circle;
+import recognizer.symbol.DeathlyHallows;
+import recognizer.symbol.IPoint;
+import recognizer.symbol.Line;
+import recognizer.symbol.Point;
+import recognizer.symbol.PointSet;
+import recognizer.symbol.Symbol;
+import recognizer.symbol.Triangle;
+
+/**
+ * A simple benchmark of the bytes allocated by the predicates of the composite
+ * rules, run with its main method. It is not a unit test. Each predicate is called
+ * many times after a warm up, and the bytes the thread allocated meanwhile are
+ * divided by the number of calls. The predicates are package-private, so they are
+ * measured through the deathly hallows probe, on a sign and on a line that misses
+ * the corners. The point set version of isConnected and the point version of
+ * nearMiddle, which the probe used, are timed too, for comparison.
+ */
+public class AllocationBenchmark {
+
+  private static final int WARMUP = 200000;
+  private static final int CALLS = 1000000;
+  private static final com.sun.management.ThreadMXBean THREADS =
+      (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  private static boolean sink;
+
+  /**
+   * Run the benchmark and print the results.
+   */
+  public static void main(String[] args) {
+    Line side = new Line(0, 0, 4, 0);
+    Line connected = new Line(4, 0, 2, 3.46);
+    Line apart = new Line(10, 10, 12, 14);
+    Triangle triangle = new Triangle(Arrays.asList(new Line(0, 0, 4, 0),
+        new Line(4, 0, 2, 3.46), new Line(2, 3.46, 0, 0)));
+    Circle circle = new Circle(2, 1.15, 1.15);
+    List<Symbol> sign = Arrays.asList(triangle, circle, new Line(2, 3.46, 2, 0));
+    List<Symbol> miss = Arrays.asList(triangle, circle, new Line(2, 3, 2, 0));
+
+    System.out.println("Bytes allocated and time per call:");
+    measure("isConnected, point set", () -> pointSetIsConnected(side, connected, 0.1)
+        ^ pointSetIsConnected(side, apart, 0.1));
+    measure("nearMiddle, point", () -> pointNearMiddle(side, new Point(2, 0.1), 0.1));
+    measure("DeathlyHallows.probe", () -> DeathlyHallows.probe(sign));
+    measure("DeathlyHallows.probe, miss", () -> DeathlyHallows.probe(miss));
+  }
+
+  /**
+   * Print the bytes allocated per call and the time per call.
+   */
+  private static void measure(String name, BooleanSupplier predicate) {
+    for (int i = 0; i < WARMUP; i++) {
+      sink ^= predicate.getAsBoolean();
+    }
+    long allocated = THREADS.getCurrentThreadAllocatedBytes();
+    long start = System.nanoTime();
+    for (int i = 0; i < CALLS; i++) {
+      sink ^= predicate.getAsBoolean();
+    }
+    long nanos = System.nanoTime() - start;
+    allocated = THREADS.getCurrentThreadAllocatedBytes() - allocated;
+    System.out.printf("  %-28s %8.2f bytes, %6.1f ns%n", name, (double) allocated / CALLS,
+        (double) nanos / CALLS);
+  }
+
+  /**
+   * isConnected as it was, with a point set and copies of the ends.
+   */
+  private static boolean pointSetIsConnected(Line l1, Line l2, double imprecision) {
+    double delta = (l1.length() + l2.length()) * imprecision / 2;
+    PointSet ps = new PointSet(delta);
+    ps.add(new Point(l1.getX1(), l1.getY1()));
+    ps.add(new Point(l1.getX2(), l1.getY2()));
+    if (ps.has(new Point(l2.getX1(), l2.getY1()))) {
+      return !ps.has(new Point(l2.getX2(), l2.getY2()));
+    } else {
+      return ps.has(new Point(l2.getX2(), l2.getY2()));
+    }
+  }
+
+  /**
+   * nearMiddle as it was, with a new point for the middle.
+   */
+  private static boolean pointNearMiddle(Line l, IPoint p, double imprecision) {
+    IPoint center = new Point((l.getX1() + l.getX2()) / 2, (l.getY1() + l.getY2()) / 2);
+    return center.distanceTo(p) < l.length() * imprecision;
+  }
+}
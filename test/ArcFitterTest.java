@@ -0,0 +1,91 @@
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+import recognizer.model.ArcFitter;
+import recognizer.model.IModel;
+import recognizer.model.Model;
+import recognizer.symbol.Arc;
+import recognizer.symbol.IPoint;
+import recognizer.symbol.Point;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Arc fitter test.
+ */
+public class ArcFitterTest {
+
+  List<IPoint> halfCircle;
+
+  /**
+   * Set up half a circle of radius 10 around (3, 4), drawn from angle 0 towards the y axis.
+   */
+  @Before
+  public void setUp() {
+    halfCircle = new ArrayList<>();
+    for (int i = 0; i <= 50; i++) {
+      double theta = Math.PI * i / 50;
+      halfCircle.add(new Point(3 + 10 * Math.cos(theta), 4 + 10 * Math.sin(theta)));
+    }
+  }
+
+  /**
+   * The fitted arc is the half circle.
+   */
+  @Test
+  public void getFittedArc() {
+    ArcFitter fitter = new ArcFitter(halfCircle);
+    Arc arc = (Arc) fitter.getFittedBasicSymbol();
+    assertEquals(3, arc.getCenter().getX(), 1e-6);
+    assertEquals(4, arc.getCenter().getY(), 1e-6);
+    assertEquals(10, arc.getRadius(), 1e-6);
+    assertEquals(0, arc.getStartAngle(), 1e-6);
+    assertEquals(Math.PI, arc.getSweep(), 1e-6);
+    assertTrue(fitter.getGoodness() > 0.9);
+  }
+
+  /**
+   * An arc drawn the other way has a negative sweep.
+   */
+  @Test
+  public void clockwise() {
+    List<IPoint> reversed = new ArrayList<>();
+    for (int i = halfCircle.size() - 1; i >= 0; i--) {
+      reversed.add(halfCircle.get(i));
+    }
+    Arc arc = (Arc) new ArcFitter(reversed).getFittedBasicSymbol();
+    assertEquals(-Math.PI, arc.getSweep(), 1e-6);
+  }
+
+  /**
+   * A stroke most of the way around is a broken circle, not an arc.
+   */
+  @Test
+  public void mostOfACircle() {
+    List<IPoint> points = new ArrayList<>();
+    for (int i = 0; i < 75; i++) {
+      double theta = 2 * Math.PI * i / 100;
+      points.add(new Point(10 * Math.cos(theta), 10 * Math.sin(theta)));
+    }
+    ArcFitter fitter = new ArcFitter(points);
+    assertNull(fitter.getFittedBasicSymbol());
+    assertEquals(0, fitter.getGoodness(), 0);
+  }
+
+  /**
+   * The model recognizes the half circle as an arc.
+   */
+  @Test
+  public void model() {
+    IModel model = new Model();
+    for (IPoint p : halfCircle) {
+      model.addPoint(p);
+    }
+    model.recognize();
+    assertTrue(model.getSymbols().get(0) instanceof Arc);
+  }
+}
@@ -1,8 +1,11 @@
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 
+import recognizer.symbol.Arc;
 import recognizer.symbol.BasicSymbol;
 import recognizer.symbol.Circle;
+import recognizer.symbol.Ellipse;
 import recognizer.symbol.Line;
 import org.junit.Before;
 import org.junit.Test;
@@ -17,6 +20,7 @@ import org.junit.Test;
  * <p>Line:
  * - Object creation success
  * - Object creation fail, same two point not a line
+ * - Geometry computed once, same as computed on each call before
  */
 public class BasicSymbolTest {
 
@@ -59,4 +63,60 @@ public class BasicSymbolTest {
   public void testToLineString() {
     assertEquals("(Line (1.00, 1.00) (2.00, 2.00))", line.toString());
   }
-}
\ No newline at end of file
+
+  /**
+   * The orientation of a line as it was computed on each call, for comparison.
+   */
+  private static double angleOf(double x1, double y1, double x2, double y2) {
+    double shadow = x1 - x2;
+    shadow = y1 > y2 ? shadow : -shadow;
+    double length = Math.sqrt((x1 - x2) * (x1 - x2) + (y1 - y2) * (y1 - y2));
+    double theta = Math.acos(shadow / length);
+    if (Math.abs(theta - Math.PI) < 0.0001) {
+      return 0;
+    }
+    return theta;
+  }
+
+  @Test
+  public void testLineGeometry() {
+    double[][] ends = {{0, 0, 4, 0}, {4, 0, 0, 0}, {0, 0, 0, 3}, {0, 3, 0, 0},
+        {1, 25, 6, 9}, {6, 9, 1, 25}, {-2, -1, 3, 7}, {0, 0, 3, 0.00001}};
+    for (double[] e : ends) {
+      Line l = new Line(e[0], e[1], e[2], e[3]);
+      assertEquals(angleOf(e[0], e[1], e[2], e[3]), l.angle(), 0);
+      assertEquals(Math.hypot(e[2] - e[0], e[3] - e[1]), l.length(), 1e-12);
+      assertEquals((e[2] - e[0]) / l.length(), l.getDirectionX(), 1e-12);
+      assertEquals((e[3] - e[1]) / l.length(), l.getDirectionY(), 1e-12);
+      assertEquals((e[0] + e[2]) / 2, l.getMidpoint().getX(), 0);
+      assertEquals((e[1] + e[3]) / 2, l.getMidpoint().getY(), 0);
+      assertEquals(e[0], l.getX1(), 0);
+      assertEquals(e[3], l.getY2(), 0);
+      assertEquals(Math.min(e[0], e[2]), l.getMinX(), 0);
+      assertEquals(Math.max(e[1], e[3]), l.getMaxY(), 0);
+      assertSame(l.getEnd1(), l.getEnd1());
+    }
+  }
+
+  @Test
+  public void testCircleBounds() {
+    Circle c = new Circle(1, 2, 3);
+    assertEquals(1, c.getCenterX(), 0);
+    assertEquals(2, c.getCenterY(), 0);
+    assertEquals(-2, c.getMinX(), 0);
+    assertEquals(-1, c.getMinY(), 0);
+    assertEquals(4, c.getMaxX(), 0);
+    assertEquals(5, c.getMaxY(), 0);
+    assertSame(c.getCenter(), c.getCenter());
+  }
+
+  @Test
+  public void testArcAndEllipseCenters() {
+    Arc arc = new Arc(1, 2, 3, 0, Math.PI);
+    Ellipse ellipse = new Ellipse(4, 5, 3, 2, 0);
+    assertSame(arc.getCenter(), arc.getCenter());
+    assertSame(ellipse.getCenter(), ellipse.getCenter());
+    assertEquals(1, arc.getCenter().getX(), 0);
+    assertEquals(5, ellipse.getCenter().getY(), 0);
+  }
+}
@@ -0,0 +1,113 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Before;
+import org.junit.Test;
+import recognizer.model.BatchFitter;
+import recognizer.model.CircleFitter;
+import recognizer.model.FitResult;
+import recognizer.model.Fitter;
+import recognizer.model.FitterRegistry;
+import recognizer.model.LineFitter;
+import recognizer.model.StrokeBuffer;
+import recognizer.symbol.Circle;
+import recognizer.symbol.IPoint;
+import recognizer.symbol.Line;
+import recognizer.symbol.Point;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for fitting a batch of strokes in parallel.
+ */
+public class BatchFitterTest {
+
+  private List<List<IPoint>> strokes;
+
+  /**
+   * Set up enough lines and circles for the batch to be split between threads.
+   */
+  @Before
+  public void setUp() {
+    Random random = new Random(11);
+    strokes = new ArrayList<>();
+    for (int s = 0; s < 500; s++) {
+      List<IPoint> stroke = new ArrayList<>();
+      double cx = random.nextInt(300);
+      double cy = random.nextInt(300);
+      for (int i = 0; i < 100; i++) {
+        double theta = 2 * Math.PI * i / 100;
+        if (s % 2 == 0) {
+          stroke.add(new Point(cx + i, cy + 2 * i + random.nextInt(2)));
+        } else {
+          stroke.add(new Point(Math.round(cx + 40 * Math.cos(theta)),
+              Math.round(cy + 40 * Math.sin(theta))));
+        }
+      }
+      strokes.add(stroke);
+    }
+  }
+
+  /**
+   * The results are the ones of fitting each stroke alone, in the order of the strokes.
+   */
+  @Test
+  public void sameAsSequential() {
+    List<FitResult> results = new BatchFitter(BatchFitterTest::fitters,
+        new ForkJoinPool(4)).fitAll(strokes);
+    assertEquals(strokes.size(), results.size());
+    FitterRegistry registry = fitters();
+    for (int s = 0; s < strokes.size(); s++) {
+      StrokeBuffer stroke = new StrokeBuffer();
+      for (IPoint p : strokes.get(s)) {
+        stroke.add(p.getX(), p.getY());
+      }
+      Fitter selected = registry.select(stroke);
+      assertEquals(selected.getFittedBasicSymbol().toString(),
+          results.get(s).getSymbol().toString());
+      assertEquals(selected.getGoodness(), results.get(s).getGoodness(), 0);
+      assertTrue(results.get(s).getSymbol() instanceof Line == (s % 2 == 0));
+      assertTrue(results.get(s).getSymbol() instanceof Circle == (s % 2 == 1));
+    }
+  }
+
+  /**
+   * Running the same batch twice gives the same results.
+   */
+  @Test
+  public void deterministic() {
+    BatchFitter batch = new BatchFitter();
+    assertEquals(batch.fitAll(strokes).toString(), batch.fitAll(strokes).toString());
+  }
+
+  /**
+   * A stroke without points has no symbol, and an empty batch has no results.
+   */
+  @Test
+  public void emptyStrokes() {
+    BatchFitter batch = new BatchFitter();
+    List<FitResult> results = batch.fitAll(Arrays.asList(new ArrayList<>()));
+    assertNull(results.get(0).getSymbol());
+    assertEquals(0, results.get(0).getGoodness(), 0);
+    assertEquals(0, batch.fitAll(new ArrayList<>()).size());
+  }
+
+  /**
+   * A null stroke is not allowed.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void nullStroke() {
+    new BatchFitter().fitAll(Arrays.asList(strokes.get(0), null));
+  }
+
+  private static FitterRegistry fitters() {
+    FitterRegistry registry = new FitterRegistry();
+    registry.register(new LineFitter(), 0.7);
+    registry.register(new CircleFitter(), 0.7);
+    return registry;
+  }
+}
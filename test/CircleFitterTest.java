@@ -50,4 +50,21 @@ public class CircleFitterTest {
     fitter = new CircleFitter(plist);
     assertTrue(fitter.getGoodness() > 0.9);
   }
-}
\ No newline at end of file
+
+  /**
+   * One fitter can be reused, each fit replaces the previous result.
+   */
+  @Test
+  public void reuseFitter() {
+    fitter = new CircleFitter();
+    assertEquals(null, fitter.getFittedBasicSymbol());
+
+    fitter.fit(new double[] {0, 0, 1, -1}, new double[] {1, -1, 0, 0}, 4);
+    assertEquals(c.toString(), fitter.getFittedBasicSymbol().toString());
+
+    // points in a line cannot form a circle.
+    fitter.fit(new double[] {0, 1, 2}, new double[] {0, 0, 0}, 3);
+    assertEquals(null, fitter.getFittedBasicSymbol());
+    assertEquals(0, fitter.getGoodness(), 0);
+  }
+}
@@ -1,12 +1,17 @@
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import recognizer.symbol.BasicSymbol;
+import recognizer.symbol.Candy;
 import recognizer.symbol.Circle;
 import recognizer.symbol.CompositeSymbol;
+import recognizer.symbol.DeathlyHallows;
 import recognizer.symbol.EquilateralTriangle;
 import recognizer.symbol.Line;
 import recognizer.symbol.Point;
+import recognizer.symbol.Rectangle;
 import recognizer.symbol.Snowman;
 import recognizer.symbol.Symbol;
 import recognizer.symbol.Triangle;
@@ -299,4 +304,39 @@ public class CompositeSymbolTest {
     result2 = result2 + triangleEqui.getComponents().get(2).toString() + ")";
     assertEquals(result2, triangleEqui.toString());
   }
+
+  /**
+   * A copy has the same components, and the components cannot be changed.
+   */
+  @Test(expected = UnsupportedOperationException.class)
+  public void testCopyAndReadOnlyComponents() {
+    Symbol copied = triangleEqui.copy();
+    assertTrue(copied != triangleEqui);
+    assertTrue(copied instanceof EquilateralTriangle);
+    assertEquals(triangleEqui.toString(), copied.toString());
+    triangleEqui.getComponents().remove(0);
+  }
+
+  /**
+   * The probes agree with the constructors, and return false instead of throwing.
+   */
+  @Test
+  public void testProbe() {
+    assertTrue(Snowman.probe(snowmanBasic.getComponents()));
+    assertTrue(Triangle.probe(triangle.getComponents()));
+    assertTrue(EquilateralTriangle.probe(triangleEqui.getComponents()));
+    assertFalse(Snowman.probe(triangle.getComponents()));
+    assertFalse(Triangle.probe(snowmanBasic.getComponents()));
+    assertFalse(Triangle.probe(null));
+    assertFalse(Rectangle.probe(triangle.getComponents()));
+    assertFalse(DeathlyHallows.probe(null));
+    assertFalse(Candy.probe(null));
+
+    List<Symbol> notEqui = new ArrayList<>();
+    notEqui.add(new Line(0, 0, 4, 0));
+    notEqui.add(new Line(4, 0, 0, 3));
+    notEqui.add(new Line(0, 3, 0, 0));
+    assertTrue(Triangle.probe(notEqui));
+    assertFalse(EquilateralTriangle.probe(notEqui));
+  }
 }
\ No newline at end of file
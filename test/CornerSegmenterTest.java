@@ -0,0 +1,143 @@
+import java.util.List;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+import recognizer.model.CornerSegmenter;
+import recognizer.model.IModel;
+import recognizer.model.Model;
+import recognizer.model.StrokeBuffer;
+import recognizer.symbol.BasicSymbol;
+import recognizer.symbol.Circle;
+import recognizer.symbol.Line;
+import recognizer.symbol.Point;
+import recognizer.symbol.Rectangle;
+import recognizer.symbol.Symbol;
+import recognizer.symbol.Triangle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for splitting a stroke into line segments at its corners.
+ */
+public class CornerSegmenterTest {
+
+  private CornerSegmenter segmenter;
+  private Random random;
+
+  /**
+   * Set up a segmenter.
+   */
+  @Before
+  public void setUp() {
+    segmenter = new CornerSegmenter();
+    random = new Random(13);
+  }
+
+  /**
+   * A triangle drawn in one stroke is split into its three sides.
+   */
+  @Test
+  public void triangle() {
+    StrokeBuffer stroke = polyline(new double[][] {{100, 100}, {300, 100}, {200, 270},
+        {100, 100}});
+    List<BasicSymbol> lines = segmenter.segment(stroke);
+    assertEquals(3, lines.size());
+    Line first = (Line) lines.get(0);
+    assertEquals(100, first.getEnd1().getX(), 0);
+    assertEquals(300, first.getEnd2().getX(), 3);
+    assertEquals(100, first.getEnd2().getY(), 3);
+  }
+
+  /**
+   * A rectangle drawn in one stroke is split into its four sides.
+   */
+  @Test
+  public void rectangle() {
+    StrokeBuffer stroke = polyline(new double[][] {{50, 50}, {250, 50}, {250, 150},
+        {50, 150}, {50, 50}});
+    assertEquals(4, segmenter.segment(stroke).size());
+  }
+
+  /**
+   * A straight stroke, a circle and a short stroke are not split.
+   */
+  @Test
+  public void notSplit() {
+    assertTrue(segmenter.segment(polyline(new double[][] {{0, 0}, {300, 120}})).isEmpty());
+    StrokeBuffer circle = new StrokeBuffer();
+    for (int i = 0; i < 500; i++) {
+      double theta = 2 * Math.PI * i / 500;
+      circle.add(Math.round(200 + 80 * Math.cos(theta) + random.nextGaussian() * 0.5),
+          Math.round(200 + 80 * Math.sin(theta) + random.nextGaussian() * 0.5));
+    }
+    assertTrue(segmenter.segment(circle).isEmpty());
+    StrokeBuffer sparse = new StrokeBuffer();
+    sparse.add(0, 0);
+    sparse.add(10, 0);
+    sparse.add(10, 10);
+    assertTrue(segmenter.segment(sparse).isEmpty());
+  }
+
+  /**
+   * The model recognizes a triangle and a rectangle drawn in one stroke each.
+   */
+  @Test
+  public void model() {
+    IModel model = new Model();
+    StrokeBuffer triangle = polyline(new double[][] {{100, 100}, {300, 100}, {200, 270},
+        {100, 100}});
+    for (int i = 0; i < triangle.size(); i++) {
+      model.addPoint(new Point(triangle.getX(i), triangle.getY(i)));
+    }
+    model.recognize();
+    List<Symbol> symbols = model.getSymbols();
+    assertEquals(1, symbols.size());
+    assertTrue(symbols.get(0) instanceof Triangle);
+
+    StrokeBuffer rectangle = polyline(new double[][] {{400, 50}, {600, 50}, {600, 150},
+        {400, 150}, {400, 50}});
+    for (int i = 0; i < rectangle.size(); i++) {
+      model.addPoint(new Point(rectangle.getX(i), rectangle.getY(i)));
+    }
+    model.recognize();
+    symbols = model.getSymbols();
+    assertEquals(2, symbols.size());
+    assertTrue(symbols.get(1) instanceof Rectangle);
+  }
+
+  /**
+   * The model still recognizes a circle drawn in one stroke as a circle.
+   */
+  @Test
+  public void modelCircle() {
+    IModel model = new Model();
+    for (int i = 0; i < 300; i++) {
+      double theta = 2 * Math.PI * i / 300;
+      model.addPoint(new Point(Math.round(200 + 60 * Math.cos(theta)),
+          Math.round(200 + 60 * Math.sin(theta))));
+    }
+    model.recognize();
+    assertEquals(1, model.getSymbols().size());
+    assertTrue(model.getSymbols().get(0) instanceof Circle);
+  }
+
+  /**
+   * A stroke through the vertices, in whole pixels with a little jitter, one point per pixel.
+   */
+  private StrokeBuffer polyline(double[][] vertices) {
+    StrokeBuffer stroke = new StrokeBuffer();
+    stroke.add(vertices[0][0], vertices[0][1]);
+    for (int k = 1; k < vertices.length; k++) {
+      double dx = vertices[k][0] - vertices[k - 1][0];
+      double dy = vertices[k][1] - vertices[k - 1][1];
+      int steps = (int) Math.hypot(dx, dy);
+      for (int i = 1; i <= steps; i++) {
+        double t = (double) i / steps;
+        stroke.add(Math.round(vertices[k - 1][0] + t * dx + random.nextGaussian() * 0.4),
+            Math.round(vertices[k - 1][1] + t * dy + random.nextGaussian() * 0.4));
+      }
+    }
+    return stroke;
+  }
+}
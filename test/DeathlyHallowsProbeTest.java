@@ -0,0 +1,135 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import recognizer.symbol.Circle;
+import recognizer.symbol.DeathlyHallows;
+import recognizer.symbol.DecoratorSymbolCenter;
+import recognizer.symbol.IPoint;
+import recognizer.symbol.Line;
+import recognizer.symbol.Point;
+import recognizer.symbol.PointSet;
+import recognizer.symbol.Symbol;
+import recognizer.symbol.Triangle;
+
+/**
+ * Test that the deathly hallows probe, which compares ends and middles on the
+ * coordinates, gives the results of the point sets and points it replaces, on many
+ * random signs drawn roughly.
+ */
+public class DeathlyHallowsProbeTest {
+
+  private static final int CASES = 100000;
+  private static final double IMPRECISION = 0.1;
+
+  private static boolean referenceIsConnected(Line l1, Line l2, double imprecision) {
+    double delta = (l1.length() + l2.length()) * imprecision / 2;
+    PointSet ps = new PointSet(delta);
+    ps.add(l1.getEnd1());
+    ps.add(l1.getEnd2());
+    if (ps.has(l2.getEnd1())) {
+      return !ps.has(l2.getEnd2());
+    } else {
+      return ps.has(l2.getEnd2());
+    }
+  }
+
+  private static boolean referenceNearMiddle(Line l, IPoint p, double imprecision) {
+    IPoint center = new Point((l.getX1() + l.getX2()) / 2, (l.getY1() + l.getY2()) / 2);
+    return center.distanceTo(p) < l.length() * imprecision;
+  }
+
+  /**
+   * The probe as it was, with a point set of the centers and the ends of the line.
+   */
+  private static boolean referenceProbe(Triangle t, Circle c, Line l) {
+    double delta = c.getRadius() * 2 * IMPRECISION;
+    IPoint center = c.getCenter();
+    Line side1 = (Line) t.getComponents().get(0);
+    Line side2 = (Line) t.getComponents().get(1);
+    Line side3 = (Line) t.getComponents().get(2);
+    if (!sameDistance(center.distanceTo(side1), c.getRadius())
+        && !sameDistance(center.distanceTo(side2), c.getRadius())
+        && !sameDistance(center.distanceTo(side3), c.getRadius())) {
+      return false;
+    }
+    PointSet ps = new PointSet(delta);
+    ps.add(new DecoratorSymbolCenter(t).getCenter());
+    ps.add(new DecoratorSymbolCenter(c).getCenter());
+    if (ps.size() > 1) {
+      return false;
+    }
+    ps.add(l.getEnd1());
+    ps.add(l.getEnd2());
+    if (ps.size() != 3) {
+      return false;
+    }
+    Line bottom = null;
+    int count = 0;
+    for (Line side : Arrays.asList(side1, side2, side3)) {
+      if (referenceIsConnected(l, side, IMPRECISION)) {
+        count++;
+      } else {
+        bottom = side;
+      }
+    }
+    if (count != 2 || bottom == null) {
+      return false;
+    }
+    return referenceNearMiddle(bottom, l.getEnd1(), IMPRECISION)
+        || referenceNearMiddle(bottom, l.getEnd2(), IMPRECISION);
+  }
+
+  private static boolean sameDistance(double d1, double d2) {
+    return Math.abs(d1 - d2) / d2 < IMPRECISION;
+  }
+
+  private static Line line(IPoint p1, IPoint p2) {
+    return new Line(p1.getX(), p1.getY(), p2.getX(), p2.getY());
+  }
+
+  private static Point near(Random random, double x, double y, double noise) {
+    return new Point(x + random.nextGaussian() * noise, y + random.nextGaussian() * noise);
+  }
+
+  @Test
+  public void probeSameAsPointSet() {
+    Random random = new Random(11);
+    int formed = 0;
+    for (int i = 0; i < CASES; i++) {
+      double noise = random.nextDouble() * 0.3;
+      Point a = near(random, 0, 0, noise);
+      Point b = near(random, 4, 0, noise);
+      Point top = near(random, 2, 3.46, noise);
+      Triangle t = new Triangle(Arrays.asList(line(a, b), line(b, top), line(top, a)));
+      Point center = near(random, 2, 1.15, noise);
+      Circle c = new Circle(center.getX(), center.getY(),
+          1.15 + random.nextGaussian() * noise);
+      Line l = line(near(random, 2, 3.46, noise), near(random, 2, 0, noise));
+      List<Symbol> sign = Arrays.asList(t, c, l);
+      boolean expected = referenceProbe(t, c, l);
+      assertEquals(expected, DeathlyHallows.probe(sign));
+      if (expected) {
+        formed++;
+      }
+    }
+    //both outcomes are well covered.
+    assertTrue(formed > CASES / 10 && formed < CASES * 9 / 10);
+  }
+
+  @Test
+  public void probeNeedsOneConnectedEnd() {
+    Triangle t = new Triangle(Arrays.asList(new Line(0, 0, 4, 0), new Line(4, 0, 2, 3.46),
+        new Line(2, 3.46, 0, 0)));
+    Circle c = new Circle(2, 1.15, 1.15);
+    assertTrue(DeathlyHallows.probe(Arrays.asList(t, c, new Line(2, 3.46, 2, 0))));
+    //the line starts at the top but does not reach the middle of the bottom.
+    assertFalse(DeathlyHallows.probe(Arrays.asList(t, c, new Line(2, 3.46, 3, 0))));
+    //the line meets no corner.
+    assertFalse(DeathlyHallows.probe(Arrays.asList(t, c, new Line(2, 3, 2, 0))));
+  }
+}
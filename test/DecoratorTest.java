@@ -4,10 +4,12 @@ import org.junit.Test;
 import java.util.ArrayList;
 import java.util.List;
 
+import recognizer.symbol.Arc;
 import recognizer.symbol.BasicSymbol;
 import recognizer.symbol.Circle;
 import recognizer.symbol.DecoratorSymbolCenter;
 import recognizer.symbol.DecoratorSymbolName;
+import recognizer.symbol.Ellipse;
 import recognizer.symbol.EquilateralTriangle;
 import recognizer.symbol.IPoint;
 import recognizer.symbol.Line;
@@ -104,4 +106,23 @@ public class DecoratorTest {
     assertEquals("Equilateral Triangle", dET.getNameString());
 
   }
-}
\ No newline at end of file
+
+  /**
+   * Test the decorators of an arc and an ellipse. The center of an arc is the middle
+   * of the arc.
+   */
+  @Test
+  public void decoratorArcEllipseTest() {
+    Arc arc = new Arc(0, 0, 10, 0, Math.PI);
+    assertEquals("Arc", new DecoratorSymbolName(arc).getNameString());
+    IPoint arcCenter = new DecoratorSymbolCenter(arc).getCenter();
+    assertEquals(0, arcCenter.getX(), 1e-9);
+    assertEquals(10, arcCenter.getY(), 1e-9);
+
+    Ellipse ellipse = new Ellipse(1, 2, 10, 5, 0);
+    assertEquals("Ellipse", new DecoratorSymbolName(ellipse).getNameString());
+    IPoint ellipseCenter = new DecoratorSymbolCenter(ellipse).getCenter();
+    assertEquals(1, ellipseCenter.getX(), 1e-9);
+    assertEquals(2, ellipseCenter.getY(), 1e-9);
+  }
+}
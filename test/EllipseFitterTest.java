@@ -0,0 +1,105 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+import recognizer.model.EllipseFitter;
+import recognizer.model.IModel;
+import recognizer.model.Model;
+import recognizer.symbol.Circle;
+import recognizer.symbol.Ellipse;
+import recognizer.symbol.IPoint;
+import recognizer.symbol.Point;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Ellipse fitter test.
+ */
+public class EllipseFitterTest {
+
+  List<IPoint> oval;
+
+  /**
+   * Set up an oval drawn in whole pixels: center (300, 200), semi-axes 120 and 60,
+   * major axis at 30 degrees.
+   */
+  @Before
+  public void setUp() {
+    oval = ellipse(300, 200, 120, 60, Math.PI / 6, 400);
+  }
+
+  /**
+   * The fitted ellipse is close to the one the points were drawn on.
+   */
+  @Test
+  public void getFittedEllipse() {
+    EllipseFitter fitter = new EllipseFitter(oval);
+    Ellipse e = (Ellipse) fitter.getFittedBasicSymbol();
+    assertEquals(300, e.getCenter().getX(), 0.5);
+    assertEquals(200, e.getCenter().getY(), 0.5);
+    assertEquals(120, e.getSemiMajor(), 0.5);
+    assertEquals(60, e.getSemiMinor(), 0.5);
+    assertEquals(30, Math.toDegrees(e.getAngle()), 0.5);
+    assertTrue(fitter.getGoodness() > 0.9);
+  }
+
+  /**
+   * A circle is left to the circle fitter.
+   */
+  @Test
+  public void nearCircle() {
+    EllipseFitter fitter = new EllipseFitter(ellipse(0, 0, 50, 49, 0, 200));
+    assertNull(fitter.getFittedBasicSymbol());
+    assertEquals(0, fitter.getGoodness(), 0);
+  }
+
+  /**
+   * Too few points, or points on a line, give no ellipse.
+   */
+  @Test
+  public void noEllipse() {
+    assertNull(new EllipseFitter(ellipse(0, 0, 50, 20, 0, 5)).getFittedBasicSymbol());
+    List<IPoint> line = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      line.add(new Point(i, 2 * i));
+    }
+    assertNull(new EllipseFitter(line).getFittedBasicSymbol());
+  }
+
+  /**
+   * The model recognizes an oval as an ellipse and a round stroke as a circle.
+   */
+  @Test
+  public void model() {
+    IModel model = new Model();
+    for (IPoint p : oval) {
+      model.addPoint(p);
+    }
+    model.recognize();
+    for (IPoint p : ellipse(600, 200, 80, 79, 0, 300)) {
+      model.addPoint(p);
+    }
+    model.recognize();
+    assertTrue(model.getSymbols().get(0) instanceof Ellipse);
+    assertTrue(model.getSymbols().get(1) instanceof Circle);
+  }
+
+  private List<IPoint> ellipse(double cx, double cy, double a, double b, double angle,
+                               int n) {
+    Random random = new Random(3);
+    List<IPoint> points = new ArrayList<>();
+    for (int i = 0; i < n; i++) {
+      double t = 2 * Math.PI * i / n;
+      double u = a * Math.cos(t);
+      double v = b * Math.sin(t);
+      points.add(new Point(
+          Math.round(cx + u * Math.cos(angle) - v * Math.sin(angle) + random.nextGaussian() * 0.3),
+          Math.round(cy + u * Math.sin(angle) + v * Math.cos(angle) + random.nextGaussian() * 0.3)));
+    }
+    return points;
+  }
+}
@@ -0,0 +1,218 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import recognizer.model.BatchFitter;
+import recognizer.model.CircleFitter;
+import recognizer.model.DouglasPeuckerSimplifier;
+import recognizer.model.Fitter;
+import recognizer.model.FitterRegistry;
+import recognizer.model.LineFitter;
+import recognizer.model.Model;
+import recognizer.model.Moments;
+import recognizer.model.RadialDistanceSimplifier;
+import recognizer.model.RansacLineFitter;
+import recognizer.model.StrokeBuffer;
+import recognizer.model.StrokeSimplifier;
+import recognizer.symbol.IPoint;
+import recognizer.symbol.Point;
+
+/**
+ * A simple benchmark of the fitting stage, run with its main method. It is not a
+ * unit test. The strokes are generated to look like recorded mouse drags: pixel
+ * coordinates, a little jitter and runs of repeated points from a slow hand.
+ */
+public class FitterBenchmark {
+
+  private static final int STROKES = 200;
+  private static final int ROUNDS = 5;
+
+  /**
+   * Run the benchmark and print the results.
+   */
+  public static void main(String[] args) {
+    List<List<IPoint>> strokes = recordedStrokes(new Random(42));
+    System.out.println("Stroke simplification, " + STROKES + " strokes:");
+    simplification(strokes, "none", null);
+    simplification(strokes, "radial 2px", new RadialDistanceSimplifier(2));
+    simplification(strokes, "douglas-peucker 1px", new DouglasPeuckerSimplifier(1));
+    simplification(strokes, "douglas-peucker 2px", new DouglasPeuckerSimplifier(2));
+
+    System.out.println("Fitter latency, goodness and symbol of " + STROKES + " strokes:");
+    latency(strokes, "line least squares", new LineFitter());
+    latency(strokes, "circle least squares", new CircleFitter());
+    latency(strokes, "line ransac", new RansacLineFitter(2, 500, Long.MAX_VALUE, false));
+    latency(strokes, "line ransac parallel", new RansacLineFitter(2, 500, Long.MAX_VALUE, true));
+
+    System.out.println("Batch fitting, " + STROKES + " strokes:");
+    batch(strokes);
+
+    System.out.println("Moments kernel, sums of " + STROKES + " strokes:");
+    double[][] xs = new double[strokes.size()][];
+    double[][] ys = new double[strokes.size()][];
+    for (int s = 0; s < strokes.size(); s++) {
+      xs[s] = new double[strokes.get(s).size()];
+      ys[s] = new double[strokes.get(s).size()];
+      for (int i = 0; i < xs[s].length; i++) {
+        xs[s][i] = strokes.get(s).get(i).getX();
+        ys[s][i] = strokes.get(s).get(i).getY();
+      }
+    }
+    momentsKernel(xs, ys, "exact integer", true);
+    for (int s = 0; s < xs.length; s++) {
+      for (int i = 0; i < xs[s].length; i++) {
+        xs[s][i] += 0.5;
+      }
+    }
+    momentsKernel(xs, ys, "double scalar", false);
+    momentsKernel(xs, ys, "double unrolled", true);
+    Moments.setUnrolledKernel(true);
+  }
+
+  /**
+   * Print the time to collect the sums of all strokes with one of the kernels.
+   */
+  private static void momentsKernel(double[][] xs, double[][] ys, String name,
+                                    boolean unrolled) {
+    Moments.setUnrolledKernel(unrolled);
+    Moments moments = new Moments();
+    long best = Long.MAX_VALUE;
+    for (int round = 0; round < ROUNDS * 10; round++) {
+      long start = System.nanoTime();
+      for (int s = 0; s < xs.length; s++) {
+        moments.clear();
+        moments.addAll(xs[s], ys[s], xs[s].length);
+      }
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    System.out.printf("  %-22s %9.1f us/stroke%n", name, best / 1000.0 / xs.length);
+  }
+
+  /**
+   * Print the time one fitter takes to fit a stroke and evaluate its result.
+   */
+  private static void latency(List<List<IPoint>> strokes, String name, Fitter fitter) {
+    List<StrokeBuffer> buffers = new ArrayList<>();
+    for (List<IPoint> points : strokes) {
+      StrokeBuffer stroke = new StrokeBuffer();
+      for (IPoint p : points) {
+        stroke.add(p.getX(), p.getY());
+      }
+      buffers.add(stroke);
+    }
+    long best = Long.MAX_VALUE;
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      for (StrokeBuffer stroke : buffers) {
+        fitter.fit(stroke.getXs(), stroke.getYs(), stroke.size(), stroke.getMoments());
+        fitter.getFittedBasicSymbol();
+      }
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    System.out.printf("  %-22s %9.1f us/stroke%n", name, best / 1000.0 / buffers.size());
+  }
+
+  /**
+   * Print the time to fit all strokes one after the other, and with the batch fitter.
+   */
+  private static void batch(List<List<IPoint>> strokes) {
+    FitterRegistry registry = defaultFitters();
+    StrokeBuffer stroke = new StrokeBuffer();
+    long sequential = Long.MAX_VALUE;
+    long parallel = Long.MAX_VALUE;
+    BatchFitter batch = new BatchFitter(FitterBenchmark::defaultFitters);
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      for (List<IPoint> points : strokes) {
+        stroke.clear();
+        for (IPoint p : points) {
+          stroke.add(p.getX(), p.getY());
+        }
+        registry.select(stroke).getGoodness();
+      }
+      sequential = Math.min(sequential, System.nanoTime() - start);
+      start = System.nanoTime();
+      batch.fitAll(strokes);
+      parallel = Math.min(parallel, System.nanoTime() - start);
+    }
+    System.out.printf("  %-22s %9.1f ms%n", "one thread", sequential / 1e6);
+    System.out.printf("  %-22s %9.1f ms on %d cores%n", "batch", parallel / 1e6,
+        Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Print the points kept per stroke and the release latency of recognize().
+   */
+  private static void simplification(List<List<IPoint>> strokes, String name,
+                                     StrokeSimplifier simplifier) {
+    long best = Long.MAX_VALUE;
+    long kept = 0;
+    for (int round = 0; round < ROUNDS; round++) {
+      long total = 0;
+      kept = 0;
+      for (List<IPoint> stroke : strokes) {
+        Model model = new Model(defaultFitters(), simplifier);
+        for (IPoint p : stroke) {
+          model.addPoint(p);
+        }
+        kept += fittedPoints(model.getPoints(), simplifier);
+        long start = System.nanoTime();
+        model.recognize();
+        total += System.nanoTime() - start;
+      }
+      best = Math.min(best, total);
+    }
+    System.out.printf("  %-22s %7d points/stroke %9.1f us/release%n", name,
+        kept / strokes.size(), best / 1000.0 / strokes.size());
+  }
+
+  /**
+   * The number of points of a stroke that reach the fitters.
+   */
+  private static int fittedPoints(List<IPoint> points, StrokeSimplifier simplifier) {
+    StrokeBuffer stroke = new StrokeBuffer();
+    for (IPoint p : points) {
+      stroke.add(p.getX(), p.getY());
+    }
+    return simplifier == null ? stroke.size()
+        : simplifier.simplify(stroke, new StrokeBuffer()).size();
+  }
+
+  static FitterRegistry defaultFitters() {
+    FitterRegistry registry = new FitterRegistry();
+    registry.register(new LineFitter(), 0.7);
+    registry.register(new CircleFitter(), 0.7);
+    return registry;
+  }
+
+  /**
+   * Generate lines and circles drawn with a mouse, a few thousand points each.
+   */
+  static List<List<IPoint>> recordedStrokes(Random random) {
+    List<List<IPoint>> strokes = new ArrayList<>();
+    for (int s = 0; s < STROKES; s++) {
+      List<IPoint> stroke = new ArrayList<>();
+      int n = 1000 + random.nextInt(4000);
+      boolean circle = s % 2 == 0;
+      double cx = 100 + random.nextInt(400);
+      double cy = 100 + random.nextInt(400);
+      double size = 50 + random.nextInt(200);
+      double angle = random.nextDouble() * Math.PI;
+      for (int i = 0; i < n; i++) {
+        double t = (double) i / n;
+        double x;
+        double y;
+        if (circle) {
+          x = cx + size * Math.cos(2 * Math.PI * t);
+          y = cy + size * Math.sin(2 * Math.PI * t);
+        } else {
+          x = cx + size * t * Math.cos(angle);
+          y = cy + size * t * Math.sin(angle);
+        }
+        stroke.add(new Point(Math.round(x + random.nextGaussian() * 0.5),
+            Math.round(y + random.nextGaussian() * 0.5)));
+      }
+      strokes.add(stroke);
+    }
+    return strokes;
+  }
+}
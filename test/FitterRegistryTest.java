@@ -0,0 +1,117 @@
+import org.junit.Before;
+import org.junit.Test;
+import recognizer.model.CircleFitter;
+import recognizer.model.Fitter;
+import recognizer.model.FitterRegistry;
+import recognizer.model.LineFitter;
+import recognizer.model.Moments;
+import recognizer.model.StrokeBuffer;
+import recognizer.symbol.BasicSymbol;
+import recognizer.symbol.Circle;
+import recognizer.symbol.Line;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for the ordered fitter registry.
+ */
+public class FitterRegistryTest {
+
+  private StrokeBuffer line;
+  private StrokeBuffer circle;
+
+  /**
+   * Set up a stroke on a line and a stroke on a circle.
+   */
+  @Before
+  public void setUp() {
+    line = new StrokeBuffer();
+    circle = new StrokeBuffer();
+    for (int i = 0; i < 36; i++) {
+      line.add(i, 2 * i);
+      double theta = i * Math.PI / 18;
+      circle.add(10 * Math.cos(theta), 10 * Math.sin(theta));
+    }
+  }
+
+  /**
+   * The fitters after a confident one are not run.
+   */
+  @Test
+  public void shortCircuit() {
+    CountingFitter first = new CountingFitter(new LineFitter());
+    CountingFitter second = new CountingFitter(new CircleFitter());
+    FitterRegistry registry = new FitterRegistry();
+    registry.register(first, 0.7);
+    registry.register(second, 0.7);
+
+    assertTrue(registry.select(line).getFittedBasicSymbol() instanceof Line);
+    assertEquals(1, first.count);
+    assertEquals(0, second.count);
+
+    assertTrue(registry.select(circle).getFittedBasicSymbol() instanceof Circle);
+    assertEquals(2, first.count);
+    assertEquals(1, second.count);
+  }
+
+  /**
+   * When no fitter is confident enough, the best one is selected.
+   */
+  @Test
+  public void bestWhenNoneConfident() {
+    FitterRegistry registry = new FitterRegistry();
+    registry.register(new LineFitter(), 2);
+    registry.register(new CircleFitter(), 2);
+    assertTrue(registry.select(line).getFittedBasicSymbol() instanceof Line);
+    assertTrue(registry.select(circle).getFittedBasicSymbol() instanceof Circle);
+  }
+
+  /**
+   * Nothing is selected for an empty stroke.
+   */
+  @Test
+  public void emptyStroke() {
+    FitterRegistry registry = new FitterRegistry();
+    registry.register(new LineFitter(), 0.7);
+    registry.register(new CircleFitter(), 0.7);
+    assertEquals(null, registry.select(new StrokeBuffer()));
+  }
+
+  /**
+   * A null fitter cannot be registered.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void nullFitter() {
+    new FitterRegistry().register(null, 0.7);
+  }
+
+  /**
+   * A fitter counting how many times it is asked to fit.
+   */
+  private class CountingFitter implements Fitter {
+
+    private final Fitter delegate;
+    private int count;
+
+    CountingFitter(Fitter delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public double getGoodness() {
+      return delegate.getGoodness();
+    }
+
+    @Override
+    public BasicSymbol getFittedBasicSymbol() {
+      return delegate.getFittedBasicSymbol();
+    }
+
+    @Override
+    public void fit(double[] xs, double[] ys, int n, Moments moments) {
+      count++;
+      delegate.fit(xs, ys, n, moments);
+    }
+  }
+}
@@ -0,0 +1,148 @@
+import java.util.Random;
+import recognizer.symbol.Geometry;
+import recognizer.symbol.Line;
+
+/**
+ * A simple benchmark of the geometry predicates, run with its main method. It is not
+ * a unit test. Each predicate is timed on the same random inputs with the square
+ * root it replaces and with the squared distances of Geometry.
+ */
+public class GeometryBenchmark {
+
+  private static final int INPUTS = 1 << 16;
+  private static final int ROUNDS = 20;
+  private static final int REPEATS = 20;
+
+  private static double[] xs;
+  private static double[] ys;
+  private static double[] deltas;
+  private static Line[] lines;
+  private static int sink;
+
+  /**
+   * Run the benchmark and print the results.
+   */
+  public static void main(String[] args) {
+    Random random = new Random(42);
+    xs = new double[INPUTS];
+    ys = new double[INPUTS];
+    deltas = new double[INPUTS];
+    lines = new Line[INPUTS];
+    for (int i = 0; i < INPUTS; i++) {
+      xs[i] = random.nextDouble() * 100;
+      ys[i] = random.nextDouble() * 100;
+      deltas[i] = random.nextDouble() * 20;
+      lines[i] = new Line(random.nextDouble() * 100, random.nextDouble() * 100,
+          random.nextDouble() * 100 + 100, random.nextDouble() * 100);
+    }
+    System.out.println("Predicate time per call, square root against squared:");
+    time("same point", GeometryBenchmark::samePointRoot,
+        GeometryBenchmark::samePointSquared);
+    time("same distance", GeometryBenchmark::sameDistanceRoot,
+        GeometryBenchmark::sameDistanceSquared);
+    time("distance to line", GeometryBenchmark::distanceToLineRoot,
+        GeometryBenchmark::distanceToLineLength);
+    System.out.println("(" + sink + ")");
+  }
+
+  /**
+   * One pass of a predicate over all the inputs.
+   */
+  private interface Pass {
+    int run();
+  }
+
+  /**
+   * Print the time of one call of each version, best of ROUNDS.
+   */
+  private static void time(String name, Pass root, Pass squared) {
+    long bestRoot = Long.MAX_VALUE;
+    long bestSquared = Long.MAX_VALUE;
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      for (int r = 0; r < REPEATS; r++) {
+        sink += root.run();
+      }
+      bestRoot = Math.min(bestRoot, System.nanoTime() - start);
+      start = System.nanoTime();
+      for (int r = 0; r < REPEATS; r++) {
+        sink += squared.run();
+      }
+      bestSquared = Math.min(bestSquared, System.nanoTime() - start);
+    }
+    double calls = (double) INPUTS * REPEATS;
+    System.out.printf("  %-20s %6.2f ns root, %6.2f ns squared%n", name,
+        bestRoot / calls, bestSquared / calls);
+  }
+
+  private static int samePointRoot() {
+    int count = 0;
+    for (int i = 1; i < INPUTS; i++) {
+      double dx = xs[i] - xs[i - 1];
+      double dy = ys[i] - ys[i - 1];
+      if (Math.sqrt(dx * dx + dy * dy) < deltas[i]) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private static int samePointSquared() {
+    int count = 0;
+    for (int i = 1; i < INPUTS; i++) {
+      if (Geometry.within(xs[i], ys[i], xs[i - 1], ys[i - 1],
+          Geometry.squaredTolerance(deltas[i]))) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private static int sameDistanceRoot() {
+    int count = 0;
+    for (int i = 1; i < INPUTS; i++) {
+      double dx = xs[i] - xs[i - 1];
+      double dy = ys[i] - ys[i - 1];
+      double expected = deltas[i] * 5;
+      if (Math.abs(Math.sqrt(dx * dx + dy * dy) - expected) / expected < 0.1) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private static int sameDistanceSquared() {
+    int count = 0;
+    for (int i = 1; i < INPUTS; i++) {
+      if (Geometry.sameDistance(Geometry.distanceSquared(xs[i], ys[i], xs[i - 1],
+          ys[i - 1]), deltas[i] * 5, 0.1)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private static int distanceToLineRoot() {
+    int count = 0;
+    for (int i = 0; i < INPUTS; i++) {
+      Line l = lines[i];
+      double a = l.getY1() - l.getY2();
+      double b = l.getX2() - l.getX1();
+      double c = l.getY2() * l.getX1() - l.getY1() * l.getX2();
+      if (Math.abs(a * xs[i] + b * ys[i] + c) / Math.sqrt(a * a + b * b) < deltas[i]) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private static int distanceToLineLength() {
+    int count = 0;
+    for (int i = 0; i < INPUTS; i++) {
+      if (Geometry.distanceToLine(xs[i], ys[i], lines[i]) < deltas[i]) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
@@ -0,0 +1,101 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Test;
+import recognizer.symbol.Geometry;
+import recognizer.symbol.Line;
+import recognizer.symbol.Point;
+
+/**
+ * Test that the geometry predicates on squared distances give the results of the
+ * square roots they replace, on many random inputs.
+ *
+ * <p>Each reference below is the computation the rules did before, with a square
+ * root. The inputs are random doubles, so none falls on the very boundary of a
+ * tolerance, where rounding could make the two differ.
+ */
+public class GeometryTest {
+
+  private static final int CASES = 100000;
+
+  private static boolean referenceSamePoint(Point p1, Point p2, double delta) {
+    return p1.distanceTo(p2) < delta;
+  }
+
+  private static double referenceDistanceToLine(double x, double y, Line l) {
+    double a = l.getY1() - l.getY2();
+    double b = l.getX2() - l.getX1();
+    double c = l.getY2() * l.getX1() - l.getY1() * l.getX2();
+    return Math.abs(a * x + b * y + c) / Math.sqrt(a * a + b * b);
+  }
+
+  private static boolean referenceSameDistance(double d1, double d2, double imprecision) {
+    return Math.abs(d1 - d2) / d2 < imprecision;
+  }
+
+  @Test
+  public void withinIsSamePoint() {
+    Random random = new Random(1);
+    int close = 0;
+    for (int i = 0; i < CASES; i++) {
+      Point p1 = new Point(random.nextDouble() * 100, random.nextDouble() * 100);
+      Point p2 = new Point(p1.getX() + random.nextGaussian() * 5,
+          p1.getY() + random.nextGaussian() * 5);
+      double delta = random.nextDouble() * 10 - 1;
+      boolean expected = referenceSamePoint(p1, p2, delta);
+      assertEquals(expected, Geometry.within(p1, p2, Geometry.squaredTolerance(delta)));
+      if (expected) {
+        close++;
+      }
+    }
+    //both outcomes are well covered.
+    assertTrue(close > CASES / 10 && close < CASES * 9 / 10);
+  }
+
+  @Test
+  public void distanceToLineIsExact() {
+    Random random = new Random(2);
+    for (int i = 0; i < CASES; i++) {
+      Line l = new Line(random.nextDouble() * 100, random.nextDouble() * 100,
+          random.nextDouble() * 100, random.nextDouble() * 100);
+      double x = random.nextDouble() * 200 - 50;
+      double y = random.nextDouble() * 200 - 50;
+      assertEquals(referenceDistanceToLine(x, y, l), Geometry.distanceToLine(x, y, l), 0);
+      assertEquals(referenceDistanceToLine(x, y, l), new Point(x, y).distanceTo(l), 0);
+    }
+  }
+
+  @Test
+  public void sameDistanceOnSquares() {
+    Random random = new Random(3);
+    int same = 0;
+    for (int i = 0; i < CASES; i++) {
+      double expected = random.nextDouble() * 50 + 0.01;
+      double distance = Math.abs(expected + random.nextGaussian() * expected * 0.2);
+      double imprecision = random.nextDouble() * 0.3;
+      boolean result = referenceSameDistance(distance, expected, imprecision);
+      assertEquals(result,
+          Geometry.sameDistance(distance * distance, expected, imprecision));
+      if (result) {
+        same++;
+      }
+    }
+    assertTrue(same > CASES / 10 && same < CASES * 9 / 10);
+  }
+
+  @Test
+  public void sameDistanceLargeImprecision() {
+    assertTrue(Geometry.sameDistance(0.01, 1, 2));
+    assertFalse(Geometry.sameDistance(9.01, 1, 2));
+    assertFalse(Geometry.sameDistance(1, 1, 0));
+    assertFalse(Geometry.sameDistance(0, 0, 0.1));
+  }
+
+  @Test
+  public void distanceSquared() {
+    assertEquals(25, Geometry.distanceSquared(0, 0, 3, 4), 0);
+    assertEquals(0, Geometry.squaredTolerance(-1), 0);
+  }
+}
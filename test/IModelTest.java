@@ -2,6 +2,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.List;
+import java.util.Random;
 
 import recognizer.model.IModel;
 import recognizer.model.Model;
@@ -81,4 +82,60 @@ public class IModelTest {
     assertEquals(1, symbols.size());
     assertTrue(symbols.get(0) instanceof Circle);
   }
-}
\ No newline at end of file
+
+  /**
+   * Null points are ignored and do not break the following recognition.
+   */
+  @Test
+  public void recognizeAfterNullPointTest() {
+    model.addPoint(new Point(0, 0));
+    model.addPoint(null);
+    model.addPoint(new Point(5, 0));
+    model.addPoint(new Point(10, 0));
+    assertEquals(3, model.getPoints().size());
+    model.recognize();
+
+    List<Symbol> symbols = model.getSymbols();
+    assertEquals(1, symbols.size());
+    assertTrue(symbols.get(0) instanceof Line);
+  }
+
+  /**
+   * Each stroke is fitted on its own points only, nothing is left from the previous one.
+   */
+  @Test
+  public void recognizeTwoStrokesTest() {
+    model.addPoint(new Point(0, 0));
+    model.addPoint(new Point(5, 0));
+    model.addPoint(new Point(10, 0));
+    model.recognize();
+    model.addPoint(new Point(105, 100));
+    model.addPoint(new Point(100, 105));
+    model.addPoint(new Point(95, 100));
+    model.addPoint(new Point(100, 95));
+    model.recognize();
+
+    List<Symbol> symbols = model.getSymbols();
+    assertEquals(2, symbols.size());
+    assertTrue(symbols.get(0) instanceof Line);
+    assertEquals("(Circle (100.00, 100.00) 5.00)", symbols.get(1).toString());
+  }
+
+  /**
+   * A hand-drawn circle that is a little oval is still a circle, not an ellipse.
+   */
+  @Test
+  public void recognizeOvalCircleTest() {
+    Random random = new Random(5);
+    for (int i = 0; i < 200; i++) {
+      double t = 2 * Math.PI * i / 200;
+      model.addPoint(new Point(Math.round(300 + 80 * Math.cos(t) + random.nextGaussian()),
+          Math.round(200 + 0.85 * 80 * Math.sin(t) + random.nextGaussian())));
+    }
+    model.recognize();
+
+    List<Symbol> symbols = model.getSymbols();
+    assertEquals(1, symbols.size());
+    assertTrue(symbols.get(0) instanceof Circle);
+  }
+}
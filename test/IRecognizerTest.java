@@ -15,6 +15,7 @@ import recognizer.model.IRecognizer;
 import recognizer.symbol.Line;
 import recognizer.symbol.Point;
 import recognizer.model.Recognizer;
+import recognizer.model.SymbolSnapshot;
 import recognizer.symbol.Rectangle;
 import recognizer.symbol.Snowman;
 import recognizer.symbol.Symbol;
@@ -136,6 +137,35 @@ public class IRecognizerTest {
     assertTrue(symbols.get(0) instanceof Rectangle);
   }
 
+  /**
+   * Add the four sides of a rectangle in one batch. The model should recognize
+   * a rectangle.
+   */
+  @Test
+  public void rectangleBatchTest() {
+    List<BasicSymbol> sides = new ArrayList<>();
+    sides.add(new Line(0, 0, 5, 0));
+    sides.add(new Line(5, 0, 5, 2));
+    sides.add(new Line(5, 2, 0, 2));
+    sides.add(new Line(0, 2, 0, 0));
+    IRecognizer newModel = new Recognizer();
+    newModel.addBasicSymbols(sides);
+    List<Symbol> symbols = newModel.getSymbols();
+    assertEquals(1, symbols.size());
+    assertTrue(symbols.get(0) instanceof Rectangle);
+  }
+
+  /**
+   * A batch with a null symbol is not allowed.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void batchWithNullTest() {
+    List<BasicSymbol> sides = new ArrayList<>();
+    sides.add(line0);
+    sides.add(null);
+    model.addBasicSymbols(sides);
+  }
+
   /**
    * Add four line segments to form a parallelogram. The model should
    * not recognize a rectangle.
@@ -204,6 +234,115 @@ public class IRecognizerTest {
     assertTrue(symbols.get(0) instanceof Candy);
   }
 
+  /**
+   * Add a thousand circles that do not touch, then the sides of a triangle.
+   * The circles stay in order and the triangle is recognized after them.
+   */
+  @Test
+  public void largeSceneTest() {
+    IRecognizer newModel = new Recognizer();
+    for (int i = 0; i < 1000; i++) {
+      newModel.addBasicSymbol(new Circle(100 * i, -100, 1));
+    }
+    newModel.addBasicSymbol(line0);
+    newModel.addBasicSymbol(new Circle(-100, -100, 1));
+    newModel.addBasicSymbol(line1);
+    newModel.addBasicSymbol(line2);
+    List<Symbol> symbols = newModel.getSymbols();
+    assertEquals(1002, symbols.size());
+    assertEquals("(Circle (0.00, -100.00) 1.00)", symbols.get(0).toString());
+    assertEquals("(Circle (99900.00, -100.00) 1.00)", symbols.get(999).toString());
+    assertEquals("(Circle (-100.00, -100.00) 1.00)", symbols.get(1000).toString());
+    assertTrue(symbols.get(1001) instanceof EquilateralTriangle);
+  }
+
+  /**
+   * The sides of a triangle drawn between circles are removed from the middle of
+   * the list, and the circles keep their order.
+   */
+  @Test
+  public void removeFromMiddleTest() {
+    IRecognizer newModel = new Recognizer();
+    newModel.addBasicSymbol(line0);
+    newModel.addBasicSymbol(new Circle(-100, 0, 1));
+    newModel.addBasicSymbol(line1);
+    newModel.addBasicSymbol(new Circle(-200, 0, 1));
+    newModel.addBasicSymbol(line2);
+    List<Symbol> symbols = newModel.getSymbols();
+    assertEquals(3, symbols.size());
+    assertEquals("(Circle (-100.00, 0.00) 1.00)", symbols.get(0).toString());
+    assertEquals("(Circle (-200.00, 0.00) 1.00)", symbols.get(1).toString());
+    assertTrue(symbols.get(2) instanceof EquilateralTriangle);
+  }
+
+  /**
+   * Symbols too large or too far for the cells of the spatial grid, or not finite,
+   * are added without hanging, and the symbols near them are still found.
+   */
+  @Test(timeout = 10000)
+  public void hugeAndFarSymbolsTest() {
+    IRecognizer newModel = new Recognizer();
+    newModel.addBasicSymbol(newModel.createCircle(0, 0, 1e300));
+    newModel.addBasicSymbol(newModel.createCircle(1e21, 0, 1));
+    newModel.addBasicSymbol(newModel.createLineSegment(0, 0, Double.POSITIVE_INFINITY, 5));
+    newModel.addBasicSymbol(line0);
+    newModel.addBasicSymbol(line1);
+    newModel.addBasicSymbol(line2);
+    List<Symbol> symbols = newModel.getSymbols();
+    assertEquals(4, symbols.size());
+    assertTrue(symbols.get(3) instanceof EquilateralTriangle);
+  }
+
+  /**
+   * The sides of a triangle drawn far apart in time, with more lines drawn elsewhere
+   * in between, are still recognized, since the candidates are the symbols near the
+   * last side and not only the last lines drawn.
+   */
+  @Test
+  public void farApartInTimeTest() {
+    IRecognizer newModel = new Recognizer();
+    newModel.addBasicSymbol(line0);
+    newModel.addBasicSymbol(line1);
+    for (int i = 0; i < 10; i++) {
+      newModel.addBasicSymbol(new Line(100 * i, 100, 100 * i + 10, 100));
+    }
+    newModel.addBasicSymbol(line2);
+    List<Symbol> symbols = newModel.getSymbols();
+    assertEquals(11, symbols.size());
+    assertEquals("(Line (0.00, 100.00) (10.00, 100.00))", symbols.get(0).toString());
+    assertTrue(symbols.get(10) instanceof EquilateralTriangle);
+  }
+
+  /**
+   * A snapshot of the symbols does not change when symbols are added or removed
+   * later, and the same snapshot is returned while nothing changes.
+   */
+  @Test
+  public void snapshotTest() {
+    IRecognizer newModel = new Recognizer();
+    newModel.addBasicSymbol(line0);
+    newModel.addBasicSymbol(line1);
+    List<Symbol> before = newModel.getSymbols();
+    assertTrue(before == newModel.getSymbols());
+    newModel.addBasicSymbol(line2);
+    List<Symbol> after = newModel.getSymbols();
+    assertEquals(2, before.size());
+    assertEquals(line1.toString(), before.get(1).toString());
+    assertEquals(1, after.size());
+    assertTrue(after.get(0) instanceof EquilateralTriangle);
+    assertTrue(((SymbolSnapshot) after).getVersion()
+        > ((SymbolSnapshot) before).getVersion());
+  }
+
+  /**
+   * The snapshot cannot be changed.
+   */
+  @Test(expected = UnsupportedOperationException.class)
+  public void snapshotReadOnlyTest() {
+    model.addBasicSymbol(line0);
+    model.getSymbols().add(line1);
+  }
+
 
   /**
    * Testing getSymbols for empty list.
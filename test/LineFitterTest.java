@@ -113,4 +113,34 @@ public class LineFitterTest {
     assertTrue(fitter.getGoodness() < 0.5);
   }
 
-}
\ No newline at end of file
+  /**
+   * Fitting from coordinate arrays gives the same line as fitting from a list.
+   */
+  @Test
+  public void fitFromArrays() {
+    double[] xs = {0, 1, 2, 3, 4, 99};
+    double[] ys = {0, 1, 2, 3, 4, 99};
+    fitter = new LineFitter(xs, ys, 5);
+    assertEquals(new LineFitter(line45).getFittedBasicSymbol().toString(),
+        fitter.getFittedBasicSymbol().toString());
+    assertEquals(new LineFitter(line45).getGoodness(), fitter.getGoodness(), 1e-9);
+  }
+
+  /**
+   * One fitter can be reused, each fit replaces the previous result.
+   */
+  @Test
+  public void reuseFitter() {
+    fitter = new LineFitter();
+    assertEquals(null, fitter.getFittedBasicSymbol());
+    assertEquals(0, fitter.getGoodness(), 0);
+
+    fitter.fit(new double[] {0, 1, 2, 3, 4}, new double[] {0, 0, 0, 0, 0}, 5);
+    assertEquals("(Line (0.00, 0.00) (4.00, 0.00))", fitter.getFittedBasicSymbol().toString());
+
+    fitter.fit(new double[] {0, 0, 0, 0, 0}, new double[] {0, 1, 2, 3, 4}, 5);
+    assertEquals("(Line (-0.00, 0.00) (0.00, 4.00))", fitter.getFittedBasicSymbol().toString());
+    assertTrue(fitter.getGoodness() > 0.9);
+  }
+
+}
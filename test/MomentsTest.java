@@ -0,0 +1,176 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+import recognizer.model.CircleFitter;
+import recognizer.model.LineFitter;
+import recognizer.model.Moments;
+import recognizer.symbol.IPoint;
+import recognizer.symbol.Point;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for the sums shared by the fitters.
+ */
+public class MomentsTest {
+
+  private List<IPoint> points;
+
+  /**
+   * Set up some points.
+   */
+  @Before
+  public void setUp() {
+    points = new ArrayList<>();
+    points.add(new Point(1, 2));
+    points.add(new Point(3, -1));
+    points.add(new Point(-2, 4));
+  }
+
+  /**
+   * All the sums are collected correctly.
+   */
+  @Test
+  public void sums() {
+    Moments m = new Moments(points);
+    assertEquals(3, m.getN());
+    assertEquals(2, m.getSx(), 1e-9);
+    assertEquals(5, m.getSy(), 1e-9);
+    assertEquals(14, m.getSxx(), 1e-9);
+    assertEquals(21, m.getSyy(), 1e-9);
+    assertEquals(-9, m.getSxy(), 1e-9);
+    assertEquals(35, m.getSx2y2(), 1e-9);
+    assertEquals(5 + 30 - 40, m.getSxx2y2(), 1e-9);
+    assertEquals(10 - 10 + 80, m.getSyx2y2(), 1e-9);
+  }
+
+  /**
+   * The sums of the third and fourth order are collected correctly.
+   */
+  @Test
+  public void higherOrderSums() {
+    Moments m = new Moments(points);
+    assertEquals(20, m.getSxxx(), 1e-9);
+    assertEquals(9, m.getSxxy(), 1e-9);
+    assertEquals(-25, m.getSxyy(), 1e-9);
+    assertEquals(71, m.getSyyy(), 1e-9);
+    assertEquals(98, m.getSxxxx(), 1e-9);
+    assertEquals(-57, m.getSxxxy(), 1e-9);
+    assertEquals(77, m.getSxxyy(), 1e-9);
+    assertEquals(-123, m.getSxyyy(), 1e-9);
+    assertEquals(273, m.getSyyyy(), 1e-9);
+  }
+
+  /**
+   * Clearing the sums resets them to zero.
+   */
+  @Test
+  public void clear() {
+    Moments m = new Moments(points);
+    m.clear();
+    assertEquals(0, m.getN());
+    assertEquals(0, m.getSx(), 0);
+    assertEquals(0, m.getSyx2y2(), 0);
+  }
+
+  /**
+   * Fitters given shared sums give the same result as fitters collecting their own.
+   */
+  @Test
+  public void sharedSums() {
+    Moments m = new Moments(points);
+    assertEquals(new LineFitter(points).getGoodness(),
+        new LineFitter(points, m).getGoodness(), 1e-9);
+    assertEquals(new CircleFitter(points).getFittedBasicSymbol().toString(),
+        new CircleFitter(points, m).getFittedBasicSymbol().toString());
+  }
+
+  /**
+   * The unrolled and the scalar kernel give the same sums, within a relative 1e-12.
+   */
+  @Test
+  public void kernelsAgree() {
+    Random random = new Random(3);
+    int n = 4001;
+    double[] xs = new double[n];
+    double[] ys = new double[n];
+    for (int i = 0; i < n; i++) {
+      xs[i] = random.nextInt(2000) + random.nextDouble();
+      ys[i] = random.nextInt(2000) - 1000;
+    }
+    try {
+      Moments.setUnrolledKernel(false);
+      Moments scalar = new Moments(xs, ys, n);
+      Moments.setUnrolledKernel(true);
+      Moments unrolled = new Moments(xs, ys, n);
+      assertEquals(scalar.getN(), unrolled.getN());
+      assertClose(scalar.getSx(), unrolled.getSx());
+      assertClose(scalar.getSy(), unrolled.getSy());
+      assertClose(scalar.getSxx(), unrolled.getSxx());
+      assertClose(scalar.getSyy(), unrolled.getSyy());
+      assertClose(scalar.getSxy(), unrolled.getSxy());
+      assertClose(scalar.getSx2y2(), unrolled.getSx2y2());
+      assertClose(scalar.getSxx2y2(), unrolled.getSxx2y2());
+      assertClose(scalar.getSyx2y2(), unrolled.getSyx2y2());
+      assertClose(scalar.getSxxxy(), unrolled.getSxxxy());
+      assertClose(scalar.getSyyyy(), unrolled.getSyyyy());
+    } finally {
+      Moments.setUnrolledKernel(true);
+    }
+  }
+
+  private void assertClose(double expected, double actual) {
+    assertEquals(expected, actual, Math.abs(expected) * 1e-12);
+  }
+
+  /**
+   * Integer points are summed exactly, so the order they are added in does not matter.
+   */
+  @Test
+  public void exactIntegerSums() {
+    Random random = new Random(5);
+    int n = 3000;
+    double[] xs = new double[n];
+    double[] ys = new double[n];
+    for (int i = 0; i < n; i++) {
+      xs[i] = random.nextInt(4000) - 2000;
+      ys[i] = random.nextInt(4000);
+    }
+    Moments forward = new Moments(xs, ys, n);
+    Moments backward = new Moments();
+    for (int i = n - 1; i >= 0; i--) {
+      backward.add(xs[i], ys[i]);
+    }
+    assertTrue(forward.isExact());
+    assertTrue(backward.isExact());
+    assertEquals(forward.getSxx2y2(), backward.getSxx2y2(), 0);
+    assertEquals(forward.getSyx2y2(), backward.getSyx2y2(), 0);
+    assertEquals(forward.getSxy(), backward.getSxy(), 0);
+  }
+
+  /**
+   * A point that is not a whole pixel, or is too far away, ends the exact sums,
+   * but the sums are still right.
+   */
+  @Test
+  public void leaveExactSums() {
+    Moments m = new Moments();
+    m.add(1, 2);
+    assertTrue(m.isExact());
+    m.add(0.5, 1);
+    assertFalse(m.isExact());
+    m.add(3, 4);
+    assertEquals(3, m.getN());
+    assertEquals(4.5, m.getSx(), 0);
+    assertEquals(1 + 0.25 + 9, m.getSxx(), 0);
+    m.clear();
+    assertTrue(m.isExact());
+    m.add(Moments.EXACT_LIMIT * 2, 0);
+    assertFalse(m.isExact());
+    assertEquals(Moments.EXACT_LIMIT * 2, m.getSx(), 0);
+  }
+}
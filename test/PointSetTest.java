@@ -0,0 +1,115 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import recognizer.symbol.IPoint;
+import recognizer.symbol.Point;
+import recognizer.symbol.PointSet;
+
+/**
+ * Test that the point set clusters points as a scan of all its points does, with
+ * few points and with many, where it uses its grid.
+ */
+public class PointSetTest {
+
+  /**
+   * The clustering of a scan: the points kept, each farther than delta from the
+   * points kept before it.
+   */
+  private static List<IPoint> scan(List<IPoint> points, double delta) {
+    List<IPoint> kept = new ArrayList<>();
+    for (IPoint p : points) {
+      boolean near = false;
+      for (IPoint k : kept) {
+        if (k.distanceTo(p) < delta) {
+          near = true;
+          break;
+        }
+      }
+      if (!near) {
+        kept.add(p);
+      }
+    }
+    return kept;
+  }
+
+  private static boolean scanHas(List<IPoint> kept, IPoint p, double delta) {
+    for (IPoint k : kept) {
+      if (k.distanceTo(p) < delta) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Test
+  public void sameAsScan() {
+    Random random = new Random(7);
+    for (int size : new int[] {3, 8, 16, 17, 100, 2000}) {
+      for (double delta : new double[] {0, 0.5, 3, 40}) {
+        List<IPoint> points = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+          points.add(new Point(random.nextDouble() * 200 - 100,
+              random.nextDouble() * 200 - 100));
+        }
+        PointSet set = new PointSet(delta);
+        for (IPoint p : points) {
+          set.add(p);
+        }
+        List<IPoint> kept = scan(points, delta);
+        assertEquals(kept.size(), set.size());
+        for (int i = 0; i < 200; i++) {
+          IPoint p = new Point(random.nextDouble() * 220 - 110,
+              random.nextDouble() * 220 - 110);
+          assertEquals(scanHas(kept, p, delta), set.has(p));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void pointsAcrossCells() {
+    PointSet set = new PointSet(1);
+    for (int i = 0; i < 50; i++) {
+      set.add(new Point(10 * i, 0));
+    }
+    assertEquals(50, set.size());
+    //within delta of a point, on the other side of a cell border.
+    assertTrue(set.has(new Point(-0.99, 0)));
+    assertTrue(set.has(new Point(10.5, 0.5)));
+    assertFalse(set.has(new Point(11, 0)));
+    set.add(new Point(1.99, 0));
+    assertEquals(51, set.size());
+    assertTrue(set.has(new Point(2.5, 0)));
+  }
+
+  @Test
+  public void farPoints() {
+    PointSet set = new PointSet(1);
+    for (int i = 0; i < 20; i++) {
+      set.add(new Point(1e30 + 1e16 * i, -1e30));
+    }
+    set.add(new Point(Double.POSITIVE_INFINITY, 0));
+    set.add(new Point(0, 0));
+    assertEquals(22, set.size());
+    //the points are found as the scan finds them, not lost past the range of a long.
+    assertTrue(set.has(new Point(1e30, -1e30)));
+    assertTrue(set.has(new Point(1e30 + 1e16 * 19, -1e30)));
+    assertFalse(set.has(new Point(1e30 + 5e15, -1e30)));
+    assertFalse(set.has(new Point(Double.POSITIVE_INFINITY, 0)));
+    assertTrue(set.has(new Point(0.5, 0)));
+    //a point just past the cells near one in them.
+    PointSet edge = new PointSet(0.5);
+    for (int i = 0; i < 20; i++) {
+      edge.add(new Point(10 * i, 0));
+    }
+    double border = 0x1p40;
+    edge.add(new Point(border + 0.8, 0));
+    assertTrue(edge.has(new Point(border + 1.2, 0)));
+    assertEquals(21, edge.size());
+  }
+}
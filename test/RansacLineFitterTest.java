@@ -0,0 +1,114 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+import recognizer.model.IModel;
+import recognizer.model.LineFitter;
+import recognizer.model.Model;
+import recognizer.model.RansacLineFitter;
+import recognizer.symbol.IPoint;
+import recognizer.symbol.Line;
+import recognizer.symbol.Point;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for the RANSAC line fitter.
+ */
+public class RansacLineFitterTest {
+
+  private double[] xs;
+  private double[] ys;
+  private int n;
+
+  /**
+   * Set up a horizontal stroke whose last point strays far from the line.
+   */
+  @Before
+  public void setUp() {
+    Random random = new Random(5);
+    n = 201;
+    xs = new double[n];
+    ys = new double[n];
+    for (int i = 0; i < n - 1; i++) {
+      xs[i] = i;
+      ys[i] = 50 + Math.round(random.nextGaussian() * 0.5);
+    }
+    xs[n - 1] = 200;
+    ys[n - 1] = 200;
+  }
+
+  /**
+   * The stray point lowers the least squares goodness, but not the RANSAC one.
+   */
+  @Test
+  public void strayPoint() {
+    LineFitter leastSquares = new LineFitter(xs, ys, n);
+    RansacLineFitter ransac = new RansacLineFitter();
+    ransac.fit(xs, ys, n);
+    assertTrue(leastSquares.getGoodness() < 0.7);
+    assertTrue(ransac.getGoodness() > 0.9);
+    Line line = (Line) ransac.getFittedBasicSymbol();
+    assertEquals(50, line.getEnd1().getY(), 1);
+    assertEquals(50, line.getEnd2().getY(), 1);
+  }
+
+  /**
+   * The result is the same on one thread and on several, for a stroke large enough to
+   * be scored in parallel.
+   */
+  @Test
+  public void parallelSameAsSequential() {
+    int big = 5000;
+    double[] bx = new double[big];
+    double[] by = new double[big];
+    Random random = new Random(9);
+    for (int i = 0; i < big; i++) {
+      bx[i] = i * 0.1;
+      by[i] = i % 10 == 0 ? random.nextInt(500) : 0.5 * i * 0.1 + random.nextGaussian();
+    }
+    RansacLineFitter parallel = new RansacLineFitter(2, 200, Long.MAX_VALUE, true);
+    RansacLineFitter sequential = new RansacLineFitter(2, 200, Long.MAX_VALUE, false);
+    parallel.fit(bx, by, big);
+    sequential.fit(bx, by, big);
+    assertEquals(sequential.getGoodness(), parallel.getGoodness(), 0);
+    assertEquals(sequential.getFittedBasicSymbol().toString(),
+        parallel.getFittedBasicSymbol().toString());
+  }
+
+  /**
+   * Too few points give no line.
+   */
+  @Test
+  public void tooFewPoints() {
+    List<IPoint> points = new ArrayList<>();
+    points.add(new Point(1, 1));
+    RansacLineFitter ransac = new RansacLineFitter(points);
+    assertEquals(0, ransac.getGoodness(), 0);
+    assertNull(ransac.getFittedBasicSymbol());
+  }
+
+  /**
+   * The iterations and the budget must be positive.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidIterations() {
+    new RansacLineFitter(2, 0, 1000, false);
+  }
+
+  /**
+   * A model with the robust fitters recognizes the stroke as a line.
+   */
+  @Test
+  public void model() {
+    IModel model = new Model(Model.robustFitters());
+    for (int i = 0; i < n; i++) {
+      model.addPoint(new Point(xs[i], ys[i]));
+    }
+    model.recognize();
+    assertTrue(model.getSymbols().get(0) instanceof Line);
+  }
+}
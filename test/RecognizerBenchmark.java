@@ -0,0 +1,176 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+import recognizer.model.CascadeStats;
+import recognizer.model.Recognizer;
+import recognizer.symbol.BasicSymbol;
+import recognizer.symbol.Circle;
+import recognizer.symbol.EquilateralTriangle;
+import recognizer.symbol.Line;
+import recognizer.symbol.Rectangle;
+import recognizer.symbol.Snowman;
+import recognizer.symbol.Symbol;
+import recognizer.symbol.Triangle;
+
+/**
+ * A simple benchmark of adding basic symbols to the recognizer, run with its main
+ * method. It is not a unit test. Each scene is a sequence of basic symbols, added one
+ * at a time to a new recognizer, as they would be drawn.
+ */
+public class RecognizerBenchmark {
+
+  private static final int SYMBOLS = 20000;
+  private static final int ROUNDS = 10;
+  private static final int ATTEMPTS = 200000;
+  private static final com.sun.management.ThreadMXBean THREADS =
+      (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  /**
+   * Run the benchmark and print the results.
+   */
+  public static void main(String[] args) {
+    System.out.println("Add latency, " + SYMBOLS + " basic symbols per scene:");
+    add("open lines", openLines(new Random(42)), 1);
+    add("triangles and circles", trianglesAndCircles(), 1);
+    add("random lines and circles", randomScene(new Random(42)), 1);
+    add("same, in batches of 10", randomScene(new Random(42)), 10);
+
+    System.out.println("Failed composite attempt, probe against constructor and catch:");
+    List<Symbol> lines = Arrays.asList(new Line(0, 0, 15, 7), new Line(50, 0, 70, 12),
+        new Line(100, 0, 118, 20), new Line(150, 0, 161, 9));
+    List<Symbol> circles = Arrays.asList(new Circle(0, 0, 5), new Circle(50, 0, 10),
+        new Circle(100, 0, 20));
+    attempt("triangle", lines.subList(0, 3), Triangle::probe, Triangle::new);
+    attempt("equilateral triangle", lines.subList(0, 3), EquilateralTriangle::probe,
+        EquilateralTriangle::new);
+    attempt("rectangle", lines, Rectangle::probe, Rectangle::new);
+    attempt("snowman", circles, Snowman::probe, Snowman::new);
+  }
+
+  /**
+   * Something that constructs a composite symbol or throws.
+   */
+  private interface Constructor {
+    Symbol construct(List<Symbol> components);
+  }
+
+  /**
+   * Print the time of one failed attempt to form a composite symbol, with the probe
+   * and with the constructor, best of ROUNDS.
+   */
+  private static void attempt(String name, List<Symbol> components,
+                              Predicate<List<Symbol>> probe, Constructor constructor) {
+    long bestProbe = Long.MAX_VALUE;
+    long bestConstructor = Long.MAX_VALUE;
+    int formed = 0;
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      for (int i = 0; i < ATTEMPTS; i++) {
+        if (probe.test(components)) {
+          formed++;
+        }
+      }
+      bestProbe = Math.min(bestProbe, System.nanoTime() - start);
+      start = System.nanoTime();
+      for (int i = 0; i < ATTEMPTS; i++) {
+        try {
+          constructor.construct(components);
+          formed++;
+        } catch (IllegalArgumentException e) {
+          //the common case.
+        }
+      }
+      bestConstructor = Math.min(bestConstructor, System.nanoTime() - start);
+    }
+    System.out.printf("  %-26s %8.3f us probe, %8.3f us constructor, %d formed%n", name,
+        bestProbe / 1e3 / ATTEMPTS, bestConstructor / 1e3 / ATTEMPTS, formed);
+  }
+
+  /**
+   * Print the average time to add every symbol of the scene, best of ROUNDS, the
+   * number of rules tried, combinations probed and combinations skipped as already
+   * rejected per symbol, the bytes allocated per symbol, and the number of symbols
+   * left in the recognizer.
+   *
+   * @param batch the number of symbols added together, 1 to add them one at a time
+   */
+  private static void add(String name, List<BasicSymbol> scene, int batch) {
+    long best = Long.MAX_VALUE;
+    long bytes = 0;
+    Recognizer recognizer = null;
+    for (int round = 0; round < ROUNDS; round++) {
+      recognizer = new Recognizer();
+      long allocated = THREADS.getCurrentThreadAllocatedBytes();
+      long start = System.nanoTime();
+      if (batch == 1) {
+        for (BasicSymbol symbol : scene) {
+          recognizer.addBasicSymbol(symbol);
+        }
+      } else {
+        for (int i = 0; i < scene.size(); i += batch) {
+          recognizer.addBasicSymbols(scene.subList(i, Math.min(i + batch, scene.size())));
+        }
+      }
+      best = Math.min(best, System.nanoTime() - start);
+      bytes = THREADS.getCurrentThreadAllocatedBytes() - allocated;
+    }
+    CascadeStats stats = recognizer.getStats();
+    System.out.printf("  %-26s %8.2f us/add, %.2f rules/add, %.2f probes/add, "
+        + "%.2f skipped/add, %d bytes/add, depth %d, %d symbols left%n", name,
+        best / 1e3 / scene.size(), (double) stats.getEvaluations() / scene.size(),
+        (double) stats.getProbes() / scene.size(), (double) stats.getSkipped() / scene.size(),
+        bytes / scene.size(), stats.getMaxDepth(), recognizer.getSymbols().size());
+  }
+
+  /**
+   * Short strokes that never close into a shape, the common case where every rule
+   * fails.
+   */
+  static List<BasicSymbol> openLines(Random random) {
+    List<BasicSymbol> scene = new ArrayList<>();
+    for (int i = 0; i < SYMBOLS; i++) {
+      double x = i * 50;
+      scene.add(new Line(x, 0, x + 10 + random.nextInt(20), 5 + random.nextInt(20)));
+    }
+    return scene;
+  }
+
+  /**
+   * Equilateral triangles drawn side by side, each side followed by a circle apart
+   * from everything else.
+   */
+  static List<BasicSymbol> trianglesAndCircles() {
+    List<BasicSymbol> scene = new ArrayList<>();
+    double height = 3 * Math.sqrt(3);
+    for (int i = 0; scene.size() < SYMBOLS; i++) {
+      double x = i * 100;
+      scene.add(new Line(x, 0, x + 6, 0));
+      scene.add(new Circle(x, 1000, 1));
+      scene.add(new Line(x, 0, x + 3, height));
+      scene.add(new Circle(x + 50, 1000, 1));
+      scene.add(new Line(x + 6, 0, x + 3, height));
+      scene.add(new Circle(x, 2000, 1));
+    }
+    return scene;
+  }
+
+  /**
+   * Lines and circles at random places on a canvas.
+   */
+  static List<BasicSymbol> randomScene(Random random) {
+    List<BasicSymbol> scene = new ArrayList<>();
+    for (int i = 0; i < SYMBOLS; i++) {
+      double x = random.nextInt(1000);
+      double y = random.nextInt(1000);
+      if (random.nextInt(3) == 0) {
+        scene.add(new Circle(x, y, 5 + random.nextInt(50)));
+      } else {
+        scene.add(new Line(x, y, x + 1 + random.nextInt(100), y + random.nextInt(100)));
+      }
+    }
+    return scene;
+  }
+}
@@ -0,0 +1,217 @@
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import recognizer.model.CascadeStats;
+import recognizer.model.CompositeRule;
+import recognizer.model.IRecognizer;
+import recognizer.model.Recognizer;
+import recognizer.model.RuleRegistry;
+import recognizer.symbol.Arc;
+import recognizer.symbol.BasicSymbol;
+import recognizer.symbol.Candy;
+import recognizer.symbol.Circle;
+import recognizer.symbol.DeathlyHallows;
+import recognizer.symbol.Ellipse;
+import recognizer.symbol.EquilateralTriangle;
+import recognizer.symbol.Line;
+import recognizer.symbol.Snowman;
+import recognizer.symbol.Symbol;
+import recognizer.symbol.Triangle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for the composite rules and their dispatch by component type.
+ */
+public class RuleRegistryTest {
+
+  private int snowmanProbes;
+  private int triangleProbes;
+  private RuleRegistry registry;
+
+  /**
+   * Set up a registry of a snowman and a triangle rule that count their probes.
+   */
+  @Before
+  public void setUp() {
+    snowmanProbes = 0;
+    triangleProbes = 0;
+    registry = new RuleRegistry();
+    registry.register(new CompositeRule("Snowman", s -> {
+      snowmanProbes++;
+      return Snowman.probe(s);
+    }, Snowman::new, Circle.class, Circle.class, Circle.class));
+    registry.register(new CompositeRule("Triangle", s -> {
+      triangleProbes++;
+      return Triangle.probe(s);
+    }, Triangle::new, Line.class, Line.class, Line.class));
+  }
+
+  /**
+   * Adding lines only tries the rules that take lines.
+   */
+  @Test
+  public void dispatchByType() {
+    IRecognizer recognizer = new Recognizer(registry);
+    recognizer.addBasicSymbol(new Circle(0, 0, 1));
+    recognizer.addBasicSymbol(new Circle(10, 0, 1));
+    recognizer.addBasicSymbol(new Circle(20, 0, 1));
+    recognizer.addBasicSymbol(new Line(0, 0, 4, 0));
+    recognizer.addBasicSymbol(new Line(4, 0, 0, 3));
+    recognizer.addBasicSymbol(new Line(0, 3, 0, 0));
+    assertEquals(1, snowmanProbes);
+    assertEquals(1, triangleProbes);
+    List<Symbol> symbols = recognizer.getSymbols();
+    assertEquals(4, symbols.size());
+    assertTrue(symbols.get(3) instanceof Triangle);
+  }
+
+  /**
+   * A rule that takes a type also takes its subtypes, and a composite formed by a rule
+   * makes the later rules that take it due.
+   */
+  @Test
+  public void formedCompositeIsDispatched() {
+    registry.register(new CompositeRule("DeathlyHallows", DeathlyHallows::probe,
+        DeathlyHallows::new, Triangle.class, Circle.class, Line.class));
+    CompositeRule rule = registry.get(2);
+    assertTrue(rule.takes(EquilateralTriangle.class));
+    assertFalse(rule.takes(Snowman.class));
+    assertEquals("(DeathlyHallows Triangle Circle Line)", rule.toString());
+
+    IRecognizer recognizer = new Recognizer(registry);
+    recognizer.addBasicSymbol(new Line(2, 3.46, 2, 0));
+    recognizer.addBasicSymbol(new Circle(2, 1.15, 1.15));
+    recognizer.addBasicSymbol(new Line(0, 0, 4, 0));
+    recognizer.addBasicSymbol(new Line(4, 0, 2, 3.46));
+    assertEquals(4, recognizer.getSymbols().size());
+    //the third side forms a triangle, which forms the sign with the older line.
+    recognizer.addBasicSymbol(new Line(0, 0, 2, 3.46));
+    assertEquals(1, recognizer.getSymbols().size());
+    assertTrue(recognizer.getSymbols().get(0) instanceof DeathlyHallows);
+  }
+
+  /**
+   * Lines added together that do not close are probed once as a triangle: the
+   * combination is the same for each of them, and is not probed again once rejected.
+   */
+  @Test
+  public void rejectedCombinationsAreNotProbedAgain() {
+    Recognizer recognizer = new Recognizer(registry);
+    List<BasicSymbol> lines = new ArrayList<>();
+    lines.add(new Line(0, 0, 4, 0));
+    lines.add(new Line(4, 0, 4, 3));
+    lines.add(new Line(4, 3, 1, 3));
+    recognizer.addBasicSymbols(lines);
+    assertEquals(3, recognizer.getSymbols().size());
+    assertEquals(1, triangleProbes);
+
+    CascadeStats stats = recognizer.getStats();
+    assertEquals(3, stats.getEvaluations());
+    assertEquals(1, stats.getProbes());
+    assertEquals(2, stats.getSkipped());
+  }
+
+  /**
+   * Rules registered after a recognizer is constructed are not used by it.
+   */
+  @Test
+  public void registryIsCopied() {
+    RuleRegistry empty = new RuleRegistry();
+    IRecognizer recognizer = new Recognizer(empty);
+    empty.register(registry.get(1));
+    assertEquals(6, Recognizer.defaultRules().size());
+    recognizer.addBasicSymbol(new Line(0, 0, 4, 0));
+    recognizer.addBasicSymbol(new Line(4, 0, 0, 3));
+    recognizer.addBasicSymbol(new Line(0, 3, 0, 0));
+    assertEquals(3, recognizer.getSymbols().size());
+  }
+
+  /**
+   * A rule needs a name, a probe, a constructor and at least one component type.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void emptySignature() {
+    new CompositeRule("Nothing", s -> true, Snowman::new);
+  }
+
+  /**
+   * Two triangles drawn in one batch are both formed, and then the candy they make
+   * with an older circle, in a cascade of depth 2.
+   */
+  @Test
+  public void cascadeToFixpoint() {
+    Recognizer recognizer = new Recognizer();
+    recognizer.addBasicSymbol(new Circle(6, 2, 2));
+    List<BasicSymbol> sides = new ArrayList<>();
+    sides.add(new Line(0, 0, 0, 4));
+    sides.add(new Line(0, 0, 4, 2));
+    sides.add(new Line(0, 4, 4, 2));
+    sides.add(new Line(12, 0, 12, 4));
+    sides.add(new Line(12, 0, 8, 2));
+    sides.add(new Line(12, 4, 8, 2));
+    recognizer.addBasicSymbols(sides);
+    assertEquals(1, recognizer.getSymbols().size());
+    assertTrue(recognizer.getSymbols().get(0) instanceof Candy);
+
+    CascadeStats stats = recognizer.getStats();
+    assertEquals(2, stats.getCascades());
+    assertEquals(3, stats.getFormed());
+    assertEquals(2, stats.getFormed(3));
+    assertEquals(1, stats.getFormed(5));
+    assertEquals(2, stats.getMaxDepth());
+    assertEquals(0, stats.getTruncated());
+  }
+
+  /**
+   * Rules that keep forming symbols for each other are stopped by the bound.
+   */
+  @Test
+  public void boundedCascade() {
+    RuleRegistry loop = new RuleRegistry();
+    loop.register(new CompositeRule("ToLine", s -> true, s -> new Line(0, 0, 1, 1),
+        Circle.class));
+    loop.register(new CompositeRule("ToCircle", s -> true, s -> new Circle(0, 0, 1),
+        Line.class));
+    Recognizer recognizer = new Recognizer(loop, 10);
+    recognizer.addBasicSymbol(new Circle(5, 5, 5));
+    assertEquals(1, recognizer.getSymbols().size());
+
+    CascadeStats stats = recognizer.getStats();
+    assertEquals(1, stats.getCascades());
+    assertEquals(10, stats.getEvaluations());
+    assertEquals(5, stats.getEvaluations(0));
+    assertEquals(5, stats.getFormed(0));
+    assertEquals(5, stats.getFormed(1));
+    assertEquals(1, stats.getTruncated());
+  }
+
+  /**
+   * A composite is one deeper than its deepest component, even when that component
+   * is not the trigger: the circle formed from the line makes the arc, added with
+   * it, form an ellipse at depth 2.
+   */
+  @Test
+  public void depthOfDeepestComponent() {
+    RuleRegistry chain = new RuleRegistry();
+    chain.register(new CompositeRule("ToCircle", s -> true, s -> new Circle(0, 0, 1),
+        Line.class));
+    chain.register(new CompositeRule("ToEllipse", s -> true,
+        s -> new Ellipse(0, 0, 2, 1, 0), Circle.class, Arc.class));
+    Recognizer recognizer = new Recognizer(chain);
+    List<BasicSymbol> added = new ArrayList<>();
+    added.add(new Arc(0, 0, 1, 0, Math.PI));
+    added.add(new Line(0, 0, 1, 1));
+    recognizer.addBasicSymbols(added);
+    assertEquals(1, recognizer.getSymbols().size());
+    assertTrue(recognizer.getSymbols().get(0) instanceof Ellipse);
+
+    CascadeStats stats = recognizer.getStats();
+    assertEquals(1, stats.getFormed(0));
+    assertEquals(1, stats.getFormed(1));
+    assertEquals(2, stats.getMaxDepth());
+  }
+}
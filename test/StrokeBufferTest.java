@@ -0,0 +1,66 @@
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import recognizer.model.StrokeBuffer;
+import recognizer.symbol.IPoint;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test for the primitive stroke buffer.
+ */
+public class StrokeBufferTest {
+
+  private StrokeBuffer buffer;
+
+  /**
+   * Set up an empty buffer.
+   */
+  @Before
+  public void setUp() {
+    buffer = new StrokeBuffer();
+  }
+
+  /**
+   * The buffer grows past its initial capacity and keeps every point in order.
+   */
+  @Test
+  public void addMany() {
+    for (int i = 0; i < 1000; i++) {
+      buffer.add(i, -i);
+    }
+    assertEquals(1000, buffer.size());
+    assertEquals(999, buffer.getX(999), 0);
+    assertEquals(-500, buffer.getY(500), 0);
+    assertEquals(1000, buffer.getMoments().getN());
+    assertEquals(999 * 1000 / 2, buffer.getMoments().getSx(), 0);
+  }
+
+  /**
+   * The points are returned as a list of point objects.
+   */
+  @Test
+  public void toPoints() {
+    buffer.add(1, 2);
+    buffer.add(3, 4);
+    List<IPoint> points = buffer.toPoints();
+    assertEquals(2, points.size());
+    assertEquals("(1.00, 2.00)", points.get(0).toString());
+    assertEquals("(3.00, 4.00)", points.get(1).toString());
+  }
+
+  /**
+   * Clearing removes the points and resets the sums.
+   */
+  @Test
+  public void clear() {
+    buffer.add(1, 2);
+    buffer.clear();
+    assertEquals(0, buffer.size());
+    assertEquals(0, buffer.toPoints().size());
+    assertEquals(0, buffer.getMoments().getN());
+    buffer.add(5, 6);
+    assertEquals(5, buffer.getX(0), 0);
+    assertEquals(5, buffer.getMoments().getSx(), 0);
+  }
+}
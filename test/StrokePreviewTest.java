@@ -0,0 +1,92 @@
+import org.junit.Before;
+import org.junit.Test;
+import recognizer.model.IModel;
+import recognizer.model.Model;
+import recognizer.model.StrokeBuffer;
+import recognizer.model.StrokePreview;
+import recognizer.symbol.BasicSymbol;
+import recognizer.symbol.Circle;
+import recognizer.symbol.Line;
+import recognizer.symbol.Point;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for the preview of the symbol being drawn.
+ */
+public class StrokePreviewTest {
+
+  private StrokePreview preview;
+
+  /**
+   * Set up a preview with the threshold of the model.
+   */
+  @Before
+  public void setUp() {
+    preview = new StrokePreview(0.7);
+  }
+
+  /**
+   * A straight stroke is previewed as a line from its first to its last point.
+   */
+  @Test
+  public void line() {
+    StrokeBuffer stroke = new StrokeBuffer();
+    for (int i = 0; i <= 20; i++) {
+      stroke.add(10 + i, 5 + 2 * i + (i % 2));
+    }
+    BasicSymbol symbol = preview.preview(stroke);
+    assertTrue(symbol instanceof Line);
+    Line line = (Line) symbol;
+    assertEquals(10, line.getEnd1().getX(), 0.5);
+    assertEquals(5, line.getEnd1().getY(), 1);
+    assertEquals(30, line.getEnd2().getX(), 0.5);
+    assertEquals(45, line.getEnd2().getY(), 1);
+  }
+
+  /**
+   * A round stroke is previewed as a circle.
+   */
+  @Test
+  public void circle() {
+    StrokeBuffer stroke = new StrokeBuffer();
+    for (int i = 0; i < 30; i++) {
+      double theta = 2 * Math.PI * i / 40;
+      stroke.add(100 + 50 * Math.cos(theta), 80 + 50 * Math.sin(theta));
+    }
+    BasicSymbol symbol = preview.preview(stroke);
+    assertTrue(symbol instanceof Circle);
+    assertEquals(100, ((Circle) symbol).getCenter().getX(), 1e-6);
+    assertEquals(80, ((Circle) symbol).getCenter().getY(), 1e-6);
+    assertEquals(50, ((Circle) symbol).getRadius(), 1e-6);
+  }
+
+  /**
+   * There is no preview until there are two distinct points.
+   */
+  @Test
+  public void tooFewPoints() {
+    StrokeBuffer stroke = new StrokeBuffer();
+    assertNull(preview.preview(stroke));
+    stroke.add(3, 4);
+    assertNull(preview.preview(stroke));
+    stroke.add(3, 4);
+    assertNull(preview.preview(stroke));
+  }
+
+  /**
+   * The model previews the stroke being drawn and clears it on recognize.
+   */
+  @Test
+  public void model() {
+    IModel model = new Model();
+    for (int i = 0; i < 10; i++) {
+      model.addPoint(new Point(i, i));
+    }
+    assertTrue(model.getPreview() instanceof Line);
+    model.recognize();
+    assertNull(model.getPreview());
+  }
+}
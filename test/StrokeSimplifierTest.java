@@ -0,0 +1,144 @@
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+import recognizer.model.CircleFitter;
+import recognizer.model.DouglasPeuckerSimplifier;
+import recognizer.model.LineFitter;
+import recognizer.model.RadialDistanceSimplifier;
+import recognizer.model.StrokeBuffer;
+import recognizer.model.StrokeSimplifier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for the stroke simplifiers. Besides reducing the points, a simplified stroke
+ * should keep the line and circle goodness within 0.05 of the full stroke, for
+ * tolerances of a couple of pixels.
+ */
+public class StrokeSimplifierTest {
+
+  private static final double GOODNESS_TOLERANCE = 0.05;
+
+  private StrokeBuffer line;
+  private StrokeBuffer circle;
+  private StrokeBuffer corner;
+
+  /**
+   * Set up strokes like the ones a slow mouse drag produces: pixel coordinates,
+   * a little jitter and many repeated points.
+   */
+  @Before
+  public void setUp() {
+    Random random = new Random(7);
+    line = new StrokeBuffer();
+    circle = new StrokeBuffer();
+    for (int i = 0; i < 2000; i++) {
+      double t = i / 10.0;
+      line.add(Math.round(50 + t * 1.5 + random.nextDouble()),
+          Math.round(80 + t + random.nextDouble()));
+      double theta = 2 * Math.PI * i / 2000;
+      circle.add(Math.round(300 + 120 * Math.cos(theta) + random.nextDouble()),
+          Math.round(300 + 120 * Math.sin(theta) + random.nextDouble()));
+    }
+    corner = new StrokeBuffer();
+    for (int i = 0; i <= 100; i++) {
+      corner.add(i, 0);
+    }
+    for (int i = 1; i <= 100; i++) {
+      corner.add(100, i);
+    }
+  }
+
+  /**
+   * Radial distance decimation drops points too close to the last kept point.
+   */
+  @Test
+  public void radialKeep() {
+    StrokeSimplifier simplifier = new RadialDistanceSimplifier(2);
+    StrokeBuffer stroke = new StrokeBuffer();
+    assertTrue(simplifier.keep(stroke, 0, 0));
+    stroke.add(0, 0);
+    assertFalse(simplifier.keep(stroke, 0, 0));
+    assertFalse(simplifier.keep(stroke, 1, 1));
+    assertTrue(simplifier.keep(stroke, 2, 0));
+    assertSame(stroke, simplifier.simplify(stroke, new StrokeBuffer()));
+  }
+
+  /**
+   * Douglas-Peucker keeps the end points and the corner of an L shaped stroke.
+   */
+  @Test
+  public void douglasPeuckerCorner() {
+    StrokeBuffer out = new DouglasPeuckerSimplifier(1).simplify(corner, new StrokeBuffer());
+    assertEquals(3, out.size());
+    assertEquals(0, out.getX(0), 0);
+    assertEquals(100, out.getX(1), 0);
+    assertEquals(0, out.getY(1), 0);
+    assertEquals(100, out.getY(2), 0);
+    assertEquals(3, out.getMoments().getN());
+  }
+
+  /**
+   * A zero tolerance keeps every point.
+   */
+  @Test
+  public void douglasPeuckerZeroTolerance() {
+    StrokeBuffer out = new DouglasPeuckerSimplifier(0).simplify(corner, new StrokeBuffer());
+    assertEquals(corner.size(), out.size());
+  }
+
+  /**
+   * A negative tolerance is not allowed.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeTolerance() {
+    new RadialDistanceSimplifier(-1);
+  }
+
+  /**
+   * Radial decimation reduces the points and keeps the goodness within tolerance.
+   */
+  @Test
+  public void radialGoodness() {
+    StrokeSimplifier simplifier = new RadialDistanceSimplifier(2);
+    assertGoodnessKept(line, decimate(line, simplifier));
+    assertGoodnessKept(circle, decimate(circle, simplifier));
+  }
+
+  /**
+   * Douglas-Peucker reduces the points and keeps the goodness within tolerance.
+   */
+  @Test
+  public void douglasPeuckerGoodness() {
+    StrokeSimplifier simplifier = new DouglasPeuckerSimplifier(1);
+    assertGoodnessKept(line, simplifier.simplify(line, new StrokeBuffer()));
+    assertGoodnessKept(circle, simplifier.simplify(circle, new StrokeBuffer()));
+  }
+
+  private StrokeBuffer decimate(StrokeBuffer stroke, StrokeSimplifier simplifier) {
+    StrokeBuffer out = new StrokeBuffer();
+    for (int i = 0; i < stroke.size(); i++) {
+      if (simplifier.keep(out, stroke.getX(i), stroke.getY(i))) {
+        out.add(stroke.getX(i), stroke.getY(i));
+      }
+    }
+    return out;
+  }
+
+  private void assertGoodnessKept(StrokeBuffer full, StrokeBuffer simplified) {
+    assertTrue(simplified.size() < full.size() / 2);
+    LineFitter lf = new LineFitter();
+    CircleFitter cf = new CircleFitter();
+    lf.fit(full);
+    cf.fit(full);
+    double line = lf.getGoodness();
+    double circle = cf.getGoodness();
+    lf.fit(simplified);
+    cf.fit(simplified);
+    assertEquals(line, lf.getGoodness(), GOODNESS_TOLERANCE);
+    assertEquals(circle, cf.getGoodness(), GOODNESS_TOLERANCE);
+  }
+}